@@ -1,10 +1,9 @@
 package com.example.animation;
 
-import com.example.ui.ImageLoader;
+import com.example.ui.SpriteFrameCache;
 import com.example.utils.Point;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
-import javafx.scene.image.WritableImage;
 
 import java.util.List;
 
@@ -12,13 +11,13 @@ import java.util.List;
  * Represents a goblin character in the menu animation, which moves along a predefined path and animates its sprite.
  */
 public class MenuGoblin {
-    private static final Image SPRITE_SHEET = ImageLoader.getImage("/com/example/assets/enemies/Goblin_Red.png");
+    private static final String SPRITE_SHEET = "/com/example/assets/enemies/Goblin_Red.png";
     private static final int FRAMES = 6;
     private static final int FRAME_SIZE = 192;
     private static final double FRAME_SECONDS = 0.1;
     private static final double SCALE = 0.5;
 
-    private final Image[] frames = new Image[FRAMES];
+    private final Image[] frames;
     private double frameTimer = 0;
     private int currentFrame = 0;
 
@@ -40,14 +39,7 @@ public class MenuGoblin {
         this.x = start.x();
         this.y = start.y();
 
-        for (int i = 0; i < FRAMES; i++) {
-            WritableImage raw = new WritableImage(
-                    SPRITE_SHEET.getPixelReader(),
-                    i * FRAME_SIZE, 0,
-                    FRAME_SIZE, FRAME_SIZE
-            );
-            frames[i] = scaleImage(raw, FRAME_SIZE * SCALE, FRAME_SIZE * SCALE);
-        }
+        this.frames = SpriteFrameCache.getFrames(SPRITE_SHEET, FRAME_SIZE, FRAMES, SCALE);
     }
 
     /**
@@ -136,24 +128,4 @@ public class MenuGoblin {
     public boolean hasReachedGoal() {
         return waypointIndex >= path.size();
     }
-
-    /**
-     * Scales an image to the specified width and height.
-     *
-     * @param src          The source image to be scaled.
-     * @param targetWidth  The desired width of the scaled image.
-     * @param targetHeight The desired height of the scaled image.
-     * @return The scaled image.
-     */
-    private Image scaleImage(Image src, double targetWidth, double targetHeight) {
-        javafx.scene.canvas.Canvas tempCanvas = new javafx.scene.canvas.Canvas(targetWidth, targetHeight);
-        GraphicsContext gc = tempCanvas.getGraphicsContext2D();
-        gc.clearRect(0, 0, targetWidth, targetHeight);
-        gc.drawImage(src, 0, 0, targetWidth, targetHeight);
-
-        javafx.scene.SnapshotParameters params = new javafx.scene.SnapshotParameters();
-        params.setFill(javafx.scene.paint.Color.TRANSPARENT);
-
-        return tempCanvas.snapshot(params, null);
-    }
 }
@@ -0,0 +1,78 @@
+package com.example.config;
+
+import com.example.map.TileEnum;
+import java.util.List;
+
+/**
+ * Represents a scripted tower layout used by headless simulation runs. The
+ * towers are built in the listed order before the first wave starts.
+ */
+public class PlacementConfig {
+    private String name;
+    private List<TowerPlacement> towers;
+
+    public PlacementConfig() {}
+
+    /**
+     * Creates a placement script.
+     *
+     * @param name   name reported with every run that uses this script
+     * @param towers towers to build, in order
+     */
+    public PlacementConfig(String name, List<TowerPlacement> towers) {
+        this.name = name;
+        this.towers = towers;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<TowerPlacement> getTowers() {
+        return towers;
+    }
+
+    /**
+     * A single tower of a placement script, given by its tile type, tile
+     * coordinates and upgrade level.
+     */
+    public static class TowerPlacement {
+        private TileEnum type;
+        private int x;
+        private int y;
+        private int level = 1;
+
+        public TowerPlacement() {}
+
+        /**
+         * Creates a tower placement.
+         *
+         * @param type  tower tile type
+         * @param x     tile column
+         * @param y     tile row
+         * @param level upgrade level to build the tower at
+         */
+        public TowerPlacement(TileEnum type, int x, int y, int level) {
+            this.type = type;
+            this.x = x;
+            this.y = y;
+            this.level = level;
+        }
+
+        public TileEnum getType() {
+            return type;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getY() {
+            return y;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+    }
+}
@@ -5,8 +5,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
-import com.example.entity.Entity;
 import com.example.entity.EntityGroup;
+import com.example.entity.EntityRegistry;
+import com.example.entity.Projectile;
+import com.example.entity.Tower;
 import com.example.game.*;
 import com.example.map.*;
 import com.example.main.Main;
@@ -14,6 +16,8 @@ import com.example.player.PlayerState;
 import com.example.storage_manager.MapStorageManager;
 import com.example.config.LevelConfig;
 import com.example.ui.AudioManager;
+import com.example.ui.Camera;
+import com.example.ui.StaticMapLayer;
 import com.example.utils.TileRenderer;
 
 import com.example.storage_manager.ProgressStorageManager;
@@ -32,11 +36,14 @@ import javafx.scene.control.Tooltip;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.Pane;
 import javafx.geometry.Pos;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.transform.Affine;
 import javafx.stage.Popup;
 import javafx.animation.PauseTransition;
 import javafx.util.Duration;
@@ -57,13 +64,28 @@ public class GameScreenController extends Controller {
 	// This is for the tower attack radius highlight
 	private Parent pauseOverlay;
 	private Circle hoverRadius;
+	private int hoverX = -1, hoverY = -1;
 
 	public static final int TILE_SIZE = 64;
+	// Largest viewport asked for; bigger maps are panned and zoomed instead
+	private static final int MAX_VIEW_WIDTH = 1280;
+	private static final int MAX_VIEW_HEIGHT = 960;
+	// Zoom factor per notch of the mouse wheel
+	private static final double ZOOM_STEP = 1.1;
 
     private Tile[][] tiles;
     private TileRenderer renderer;
+	// The map is static apart from tower tiles, so it is baked once into
+	// chunks and the viewport canvas is only redrawn when the camera moves or
+	// a tile changes
+	private StaticMapLayer staticMap;
+	private Canvas mapCanvas;
+	private Camera camera;
+	private final Affine cameraTransform = new Affine();
+	private double dragX, dragY;
 	private final Popup contextMenu = new Popup();
-	private boolean isFast;
+	private static final double[] GAME_SPEEDS = { 1.0, 2.0, 4.0, 8.0, 16.0 };
+	private int speedIndex;
 	private Parent gameOverOverlay;
 	private Parent victoryOverlay;
 	private String mapName;
@@ -130,49 +152,83 @@ public class GameScreenController extends Controller {
 
 		// init renderer & model
 		renderer = new TileRenderer("/com/example/assets/tiles/Tileset-64x64.png", TILE_SIZE);
+		Projectile.preloadImages();
         GameModel gameModel = new GameModel(mapTiles);
 
-		// render map tiles
+		// bake map tiles into chunk images instead of one node per tile
+		TileEnum[][] types = new TileEnum[rows][cols];
 		for (int y = 0; y < rows; y++) {
 			for (int x = 0; x < cols; x++) {
-				TileEnum type = mapTiles[y][x].getType();
-				TileView tv = renderer.createTileView(type);
-				tv.setLayoutX(x * TILE_SIZE);
-				tv.setLayoutY(y * TILE_SIZE);
-				tiles[y][x] = new Tile(tv, new TileModel(x, y));
-
-				if (type == TileEnum.EMPTY_TOWER_TILE) {
-					final int tx = x, ty = y;
-					tv.setOnMouseClicked(e -> onTowerTileClicked(tv, tx, ty, e));
-					towerLayer.getChildren().add(tv);
-				} else {
-					mapLayer.getChildren().add(tv);
-				}
+				tiles[y][x] = new Tile(mapTiles[y][x], new TileModel(x, y));
+				types[y][x] = mapTiles[y][x].getType();
 			}
 		}
+		staticMap = new StaticMapLayer(renderer, types, TILE_SIZE);
 
-		// adjust window size
+		// adjust window size; maps larger than this are viewed through the camera
 		double w = cols * TILE_SIZE;
 		double h = rows * TILE_SIZE;
-		gameArea.setPrefSize(w, h);
+		gameArea.setPrefSize(Math.min(w, MAX_VIEW_WIDTH), Math.min(h, MAX_VIEW_HEIGHT));
+		Rectangle clip = new Rectangle();
+		clip.widthProperty().bind(gameArea.widthProperty());
+		clip.heightProperty().bind(gameArea.heightProperty());
+		gameArea.setClip(clip);
+
+		mapCanvas = viewportCanvas();
+		mapLayer.getChildren().add(mapCanvas);
+
+		// tower tiles are picked by position rather than by their own nodes;
+		// the layer is laid out in world coordinates and moved by the camera
+		towerLayer.setManaged(false);
+		towerLayer.resize(w, h);
+		towerLayer.getTransforms().add(cameraTransform);
+		towerLayer.setPickOnBounds(true);
+		towerLayer.setOnMouseClicked(this::onTowerLayerClicked);
+		towerLayer.setOnMouseMoved(this::onTowerLayerMoved);
+		towerLayer.setOnMouseExited(e -> {
+			hoverX = hoverY = -1;
+			hideTowerRadius();
+		});
 
-		Canvas gameCanvas = new Canvas(cols * TILE_SIZE, rows * TILE_SIZE);
+		Canvas gameCanvas = viewportCanvas();
 		entityLayer.getChildren().add(gameCanvas);
 
 		gameArea.addEventFilter(MouseEvent.MOUSE_CLICKED, e -> {
-			if (GameManager.getInstance().handleClick(e.getX(), e.getY())) {
+			if (GameManager.getInstance().handleClick(camera.toWorldX(e.getX()), camera.toWorldY(e.getY()))) {
 				e.consume();
 			}
 		});
 
 		// 2) Grab all of your Entities out of the model
-		List<Entity> allEntities = gameModel.getEntities();
+		EntityRegistry allEntities = gameModel.getEntities();
 
 		// 3) Hook up & start the GameManager loop
 		GameManager.initialize(gameCanvas, allEntities, gameModel, playerState);
 
 		this.gameManager = GameManager.getInstance();
 
+		// the wheel zooms about the cursor, dragging with the other buttons pans
+		camera = gameManager.getCamera();
+		gameArea.widthProperty().addListener(obs -> updateViewport());
+		gameArea.heightProperty().addListener(obs -> updateViewport());
+		gameArea.addEventHandler(ScrollEvent.SCROLL, e -> {
+			camera.zoomAt(Math.pow(ZOOM_STEP, e.getDeltaY() / 40.0), e.getX(), e.getY());
+			cameraMoved();
+			e.consume();
+		});
+		gameArea.addEventFilter(MouseEvent.MOUSE_PRESSED, e -> {
+			dragX = e.getX();
+			dragY = e.getY();
+		});
+		gameArea.addEventFilter(MouseEvent.MOUSE_DRAGGED, e -> {
+			if (!e.isSecondaryButtonDown() && !e.isMiddleButtonDown()) return;
+			camera.pan(dragX - e.getX(), dragY - e.getY());
+			dragX = e.getX();
+			dragY = e.getY();
+			cameraMoved();
+		});
+		updateViewport();
+
 		waveLabel.textProperty().bind(
 				gameManager.getCurrentWaveProperty()
 						.asString()
@@ -180,6 +236,7 @@ public class GameScreenController extends Controller {
 		);
 
 		gameManager.setWavesFromGroups(waves);
+		gameManager.startRecording(mapName, waves);
 
 		hudTimer = new javafx.animation.AnimationTimer() {
 			@Override
@@ -195,6 +252,71 @@ public class GameScreenController extends Controller {
         }
 
 
+	/** Creates a canvas that always covers the game area, outside of layout. */
+	private Canvas viewportCanvas() {
+		Canvas canvas = new Canvas();
+		canvas.setManaged(false);
+		canvas.widthProperty().bind(gameArea.widthProperty());
+		canvas.heightProperty().bind(gameArea.heightProperty());
+		return canvas;
+	}
+
+	private void updateViewport() {
+		if (gameArea.getWidth() <= 0 || gameArea.getHeight() <= 0) return;
+		camera.setViewport(gameArea.getWidth(), gameArea.getHeight());
+		cameraMoved();
+	}
+
+	/** Moves the tower layer along with the camera and redraws the map. */
+	private void cameraMoved() {
+		camera.apply(cameraTransform);
+		staticMap.draw(mapCanvas.getGraphicsContext2D(), camera);
+		contextMenu.hide();
+	}
+
+	/** Redraws one tile of the baked map from its current type. */
+	private void bakeTile(int x, int y) {
+		staticMap.setTile(x, y, tiles[y][x].view.getType());
+		staticMap.draw(mapCanvas.getGraphicsContext2D(), camera);
+	}
+
+	/** Returns the tile under a point of the tower layer, or null outside the map. */
+	private Tile tileAt(double px, double py) {
+		int x = (int) Math.floor(px / TILE_SIZE);
+		int y = (int) Math.floor(py / TILE_SIZE);
+		if (y < 0 || y >= tiles.length || x < 0 || x >= tiles[y].length) return null;
+		return tiles[y][x];
+	}
+
+	private static boolean isTowerSlot(TileEnum type) {
+		return type == TileEnum.EMPTY_TOWER_TILE
+				|| type == TileEnum.ARCHERY_TOWER
+				|| type == TileEnum.MAGE_TOWER
+				|| type == TileEnum.ARTILLERY_TOWER;
+	}
+
+	private void onTowerLayerClicked(MouseEvent e) {
+		// the end of a pan is not a click on the tile it stopped over
+		if (!e.isStillSincePress()) return;
+		Tile tile = tileAt(e.getX(), e.getY());
+		if (tile == null || !isTowerSlot(tile.view.getType())) return;
+		onTowerTileClicked(tile.view, tile.model.getX(), tile.model.getY(), e);
+	}
+
+	private void onTowerLayerMoved(MouseEvent e) {
+		Tile tile = tileAt(e.getX(), e.getY());
+		int x = tile == null ? -1 : tile.model.getX();
+		int y = tile == null ? -1 : tile.model.getY();
+		if (x == hoverX && y == hoverY) return;
+		hoverX = x;
+		hoverY = y;
+		if (tile != null && tile.model.hasTower()) {
+			showTowerRadius(x, y);
+		} else {
+			hideTowerRadius();
+		}
+	}
+
 	private void onTowerTileClicked(TileView tv, int x, int y, MouseEvent e) {
 		hideTowerRadius();
 		if (tv.getType() == TileEnum.EMPTY_TOWER_TILE) {
@@ -208,9 +330,9 @@ public class GameScreenController extends Controller {
     List<Option> opts = new ArrayList<>();
     
     // Check if player can afford each tower type
-    boolean canAffordArcher = playerState.getGold() >= 100;
-    boolean canAffordMage = playerState.getGold() >= 120;
-    boolean canAffordArtillery = playerState.getGold() >= 140;
+    boolean canAffordArcher = playerState.getGold() >= TowerFactory.buildCost(TileEnum.ARCHERY_TOWER);
+    boolean canAffordMage = playerState.getGold() >= TowerFactory.buildCost(TileEnum.MAGE_TOWER);
+    boolean canAffordArtillery = playerState.getGold() >= TowerFactory.buildCost(TileEnum.ARTILLERY_TOWER);
     
     opts.add(new Option("Archer", () -> constructTower(tileX, tileY, TileEnum.ARCHERY_TOWER), 
             "/com/example/assets/buttons/Archer_Tower_Button.png", canAffordArcher));
@@ -224,27 +346,18 @@ public class GameScreenController extends Controller {
 }
 
 	private void sellTower(int x, int y) {
-		Tile tile = tiles[y][x];
-		TileView newView = renderer.createTileView(TileEnum.EMPTY_TOWER_TILE);
-		newView.setLayoutX(x * TILE_SIZE);
-		newView.setLayoutY(y * TILE_SIZE);
-
-		int cost = tile.model.getTower().goldCost;
-		playerState.addGold(cost);
-
-		towerLayer.getChildren().remove(tile.view);
-		towerLayer.getChildren().add(newView);
+		if (!gameManager.sellTower(x, y)) return;
 
-		tile.view = newView;
+		Tile tile = tiles[y][x];
+		tile.view.setType(TileEnum.EMPTY_TOWER_TILE);
 		tile.model.removeTower();
+		bakeTile(x, y);
+
 		if (tile.levelLabel != null) {
 			towerLayer.getChildren().remove(tile.levelLabel);
 			tile.levelLabel = null;
 		}
 		hideTowerRadius();
-		newView.setOnMouseClicked(e -> onTowerTileClicked(newView, x, y, e));
-		newView.setOnMouseEntered(e -> showTowerRadius(x, y));
-		newView.setOnMouseExited(e -> hideTowerRadius());
 	}
 
 
@@ -396,6 +509,7 @@ public class GameScreenController extends Controller {
 			hoverRadius.setFill(Color.color(0, 0.5, 1.0, 0.15));
 			hoverRadius.setStroke(Color.web("#87bfbe"));
 			hoverRadius.setStrokeWidth(2);
+			hoverRadius.setMouseTransparent(true);
 			towerLayer.getChildren().add(hoverRadius);
 		}
 
@@ -425,57 +539,30 @@ public class GameScreenController extends Controller {
 	}
 
 	private void constructTower(int x, int y, TileEnum towerType) {
-		int cost;
-		switch (towerType) {
-			case ARCHERY_TOWER -> cost = 100;
-			case MAGE_TOWER -> cost = 120;
-			case ARTILLERY_TOWER -> cost = 140;
-			default -> cost = 100;
-		}
-		
-		// We don't need to check funds here anymore since disabled buttons 
-		// prevent this method from being called when funds are insufficient
-		
-		playerState.spendGold(cost);
+		// Disabled buttons keep this from being called without enough funds,
+		// but the simulation checks again so that a replay applies the same rules
+		Tower tower = gameManager.buildTower(towerType, x, y);
+		if (tower == null) return;
 		AudioManager.playSoundEffect("/com/example/assets/audio/tower-construction-sound.mp3");
 
 		Tile tile = tiles[y][x];
-		TileView newView = renderer.createTileView(towerType);
-		newView.setLayoutX(x * TILE_SIZE);
-		newView.setLayoutY(y * TILE_SIZE);
-
-		towerLayer.getChildren().remove(tile.view);
-		towerLayer.getChildren().add(newView);
-
-		tile.view = newView;
-		tile.model.setTower(towerType, 10, 5, cost, 2, 1);
+		tile.view.setType(towerType);
+		tile.model.setTower(towerType, tower);
+		bakeTile(x, y);
 
 		if (tile.levelLabel != null) {
 			towerLayer.getChildren().remove(tile.levelLabel);
 		}
 		tile.levelLabel = createLevelLabel(1, x, y);
 		towerLayer.getChildren().add(tile.levelLabel);
-
-		newView.setOnMouseClicked(e -> onTowerTileClicked(newView, x, y, e));
-		newView.setOnMouseEntered(e -> showTowerRadius(x, y));
-		newView.setOnMouseExited(e -> hideTowerRadius());
 	}
 
 	private void upgradeTower(int x, int y) {
 		Tile tile = tiles[y][x];
-		int cost = tile.model.getTower().goldCost;
-		
-		// No need to check funds here anymore
-		
-		playerState.spendGold(cost);
-
-		TileEnum type = tile.model.getType();
-		switch (type) {
-			case ARCHERY_TOWER -> tile.model.upgradeTower(12, 8, 4);
-			case MAGE_TOWER -> tile.model.upgradeTower(12, 7, 3);
-			case ARTILLERY_TOWER -> tile.model.upgradeTower(14, 15, 2);
-			default -> {}
-		}
+		Tower tower = gameManager.upgradeTower(x, y);
+		if (tower == null) return;
+
+		tile.model.setTower(tile.model.getType(), tower);
 		if (tile.levelLabel != null) {
 			tile.levelLabel.setText(Integer.toString(tile.model.getTower().upgradeLevel));
 		}
@@ -515,8 +602,8 @@ public class GameScreenController extends Controller {
 	public void speedUp(ActionEvent event) {
 		if (gameManager == null) return;
 
-		isFast = !isFast;
-		double speed = isFast ? 2.0 : 1.0;
+		speedIndex = (speedIndex + 1) % GAME_SPEEDS.length;
+		double speed = GAME_SPEEDS[speedIndex];
 		gameManager.setGameSpeed(speed);
 
 		// Optional: change the button's icon or tooltip
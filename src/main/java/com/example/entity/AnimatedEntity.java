@@ -1,36 +1,59 @@
 package com.example.entity;
 
 import com.example.ui.ImageLoader;
+import com.example.ui.RenderQueue;
+import com.example.ui.SpriteFrameCache;
+import com.example.utils.PathPolyline;
 import com.example.utils.Point;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Deque;
-import javafx.scene.image.WritableImage;
 import java.util.List;
 
 /**
  * Represents an animated entity that traverses a predefined path while displaying sprite animations.
  * This class handles movement, animation, and status effects.
+ * <p>
+ * An entity starts out keeping its state in its own fields. Once it is added
+ * to an {@link EnemyStore} its per-tick state (position, hit points, speed
+ * modifier, slow timer, distance along the path and animation frame) lives in the store's
+ * primitive columns instead and is advanced by {@link EnemyStore#update(double)}
+ * together with every other stored enemy; the accessors below read whichever
+ * storage is active.
  */
 public class AnimatedEntity extends Entity {
-    private final Image[] frames;
+    /** Status flag set while the entity is slowed. */
+    protected static final int STATUS_SLOWED = 1;
+    /** Status flag set while the entity moves with a speed boost. */
+    protected static final int STATUS_BOOSTED = 1 << 1;
+
+    private static final String[] STATUS_ICONS = {
+            "/com/example/assets/effects/snowflake.png",
+            "/com/example/assets/effects/thunder.png"
+    };
+
+    private final String spriteSheet;
+    private final int frameCount;
+    private final int frameSize;
+    private final double scaleFactor;
+    private Image[] frames;
     private final double frameDuration;
     private double frameTimer = 0;
     private int currentFrame = 0;
     private double speedModifier = 1.0;
     private double slowTimer = 0;
-    private static final Image SNOWFLAKE = ImageLoader.getImage("/com/example/assets/effects/snowflake.png");
-    protected final Deque<Image> effectStack = new ArrayDeque<>();
-    private final List<Point> path;
+    private double timeScale = 1.0;
+    private int status = 0;
+    private PathPolyline path;
     private final double speed;
-    private int waypointIndex = 0;
+    private double distance = 0;
+    private int segment = 0;
+
+    EnemyStore store;
+    int slot = -1;
 
     /**
      * Constructs an AnimatedEntity with the specified parameters.
      *
-     * @param spriteSheet  the sprite sheet containing animation frames
+     * @param spriteSheet  resource path of the sprite sheet containing animation frames
      * @param frameCount   the number of frames in the sprite sheet
      * @param frameSize    the width and height of each frame in pixels
      * @param frameDuration the duration each frame is displayed in seconds
@@ -39,7 +62,7 @@ public class AnimatedEntity extends Entity {
      * @param hp           the initial hit points of the entity
      * @param scaleFactor  the scaling factor for rendering the frames
      */
-    public AnimatedEntity(Image spriteSheet,
+    public AnimatedEntity(String spriteSheet,
                           int frameCount,
                           int frameSize,
                           double frameDuration,
@@ -47,107 +70,172 @@ public class AnimatedEntity extends Entity {
                           double speed,
                           int hp,
                           double scaleFactor) {
-        super(path.getFirst().x(), path.getFirst().y(), hp);
+        this(spriteSheet, frameCount, frameSize, frameDuration, PathPolyline.of(path), speed, hp, scaleFactor);
+    }
+
+    /**
+     * Constructs an AnimatedEntity following an already simplified path,
+     * which may be shared with other entities.
+     *
+     * @param spriteSheet  resource path of the sprite sheet containing animation frames
+     * @param frameCount   the number of frames in the sprite sheet
+     * @param frameSize    the width and height of each frame in pixels
+     * @param frameDuration the duration each frame is displayed in seconds
+     * @param path         the polyline defining the entity's movement path
+     * @param speed        the base movement speed in pixels per second
+     * @param hp           the initial hit points of the entity
+     * @param scaleFactor  the scaling factor for rendering the frames
+     */
+    public AnimatedEntity(String spriteSheet,
+                          int frameCount,
+                          int frameSize,
+                          double frameDuration,
+                          PathPolyline path,
+                          double speed,
+                          int hp,
+                          double scaleFactor) {
+        super(path.startX(), path.startY(), hp);
         this.path = path;
         this.speed = speed;
         this.frameDuration = frameDuration;
-        this.frames = new Image[frameCount];
-        for (int i = 0; i < frameCount; i++) {
-            Image raw = new WritableImage(
-                    spriteSheet.getPixelReader(),
-                    i * frameSize, 0,
-                    frameSize, frameSize
-            );
-            frames[i] = scaleImage(raw, frameSize * scaleFactor, frameSize * scaleFactor);
+        this.spriteSheet = spriteSheet;
+        this.frameCount = frameCount;
+        this.frameSize = frameSize;
+        this.scaleFactor = scaleFactor;
+    }
+
+    /**
+     * Returns the scaled animation frames. They are shared with every other
+     * entity using the same sprite sheet and built on first render, which
+     * keeps sprite work out of spawning and out of headless simulation runs.
+     *
+     * @return the animation frames
+     */
+    private Image[] frames() {
+        if (frames == null) {
+            frames = SpriteFrameCache.getFrames(spriteSheet, frameSize, frameCount, scaleFactor);
         }
+        return frames;
     }
 
     /**
      * Updates the entity's animation and movement based on the elapsed time.
+     * Entities held in an {@link EnemyStore} are moved by the store instead,
+     * so for them this only runs per-entity behaviour in subclasses.
      *
      * @param dt the time delta in seconds
      */
     @Override
     public void update(double dt) {
+        if (store != null) return;
+        prevX = x;
+        prevY = y;
+        dt *= timeScale;
         frameTimer += dt;
         if (frameTimer >= frameDuration) {
             frameTimer -= frameDuration;
-            currentFrame = (currentFrame + 1) % frames.length;
+            currentFrame = (currentFrame + 1) % frameCount;
         }
-        if (waypointIndex < path.size()) {
+        double total = path.totalLength();
+        if (distance < total) {
             if (slowTimer > 0) {
                 slowTimer -= dt;
                 if (slowTimer <= 0) {
                     speedModifier = 1.0;
-                    effectStack.remove(SNOWFLAKE);
-                }
-            }
-            double remaining = speed * speedModifier * dt;
-            while (remaining > 0 && waypointIndex < path.size()) {
-                Point target = path.get(waypointIndex);
-                double dx = target.x() - x, dy = target.y() - y;
-                double dist = Math.hypot(dx, dy);
-                if (dist < 1e-3) {
-                    x = target.x();
-                    y = target.y();
-                    waypointIndex++;
-                    continue;
-                }
-                if (remaining >= dist) {
-                    x = target.x();
-                    y = target.y();
-                    remaining -= dist;
-                    waypointIndex++;
-                } else {
-                    x += dx / dist * remaining;
-                    y += dy / dist * remaining;
-                    remaining = 0;
+                    status &= ~STATUS_SLOWED;
                 }
             }
+            distance = Math.min(total, distance + speed * speedModifier * dt);
+            segment = path.advance(segment, distance);
+            x = path.xAt(segment, distance);
+            y = path.yAt(segment, distance);
+        }
+    }
+
+    @Override
+    public double getX() {
+        return store != null ? store.x[slot] : x;
+    }
+
+    @Override
+    public double getY() {
+        return store != null ? store.y[slot] : y;
+    }
+
+    @Override
+    public double getRenderX(double alpha) {
+        double from = store != null ? store.prevX[slot] : prevX;
+        return from + (getX() - from) * alpha;
+    }
+
+    @Override
+    public double getRenderY(double alpha) {
+        double from = store != null ? store.prevY[slot] : prevY;
+        return from + (getY() - from) * alpha;
+    }
+
+    @Override
+    public int getHP() {
+        return store != null ? store.hp[slot] : hp;
+    }
+
+    @Override
+    public int getHp() {
+        return getHP();
+    }
+
+    @Override
+    public void applyDamage(int amount) {
+        if (store != null) {
+            store.hp[slot] -= amount;
+        } else {
+            hp -= amount;
         }
     }
 
+    private double distance() {
+        return store != null ? store.distance[slot] : distance;
+    }
+
     /**
      * Checks if the entity has reached the final point in its path.
      *
      * @return true if the entity has reached the goal, false otherwise
      */
     public boolean hasReachedGoal() {
-        return waypointIndex >= path.size();
+        return distance() >= path.totalLength();
     }
 
     /**
      * Calculates the entity's progress along its path.
      *
-     * @return a numeric value representing the progress along the path
+     * @return the distance travelled along the path in pixels
      */
     public double getPathProgress() {
-        if (waypointIndex <= 0)
-            return 0;
-        if (waypointIndex >= path.size())
-            return path.size();
-        int prevIndex = waypointIndex - 1;
-        Point prev = path.get(prevIndex);
-        Point next = path.get(waypointIndex);
-        double segmentLength = Math.hypot(next.x() - prev.x(), next.y() - prev.y());
-        if (segmentLength < 1e-6)
-            return waypointIndex;
-        double distFromPrev = Math.hypot(x - prev.x(), y - prev.y());
-        return prevIndex + Math.min(1.0, distFromPrev / segmentLength);
+        return distance();
     }
 
     /**
-     * Predicts the entity's future position along its path.
+     * Calculates how far the entity still has to walk. Unlike
+     * {@link #getPathProgress()}, this stays comparable between entities
+     * after one of them was sent along a new path.
+     *
+     * @return the distance left to the end of the path in pixels
+     */
+    public double getRemainingDistance() {
+        return path.totalLength() - distance();
+    }
+
+    /**
+     * Predicts the entity's future position along its path, three quarters
+     * of a second ahead at its base speed.
      *
      * @return the predicted future position as a Point
      */
     public Point getFuturePosition() {
-        int futureSteps = (int) (0.75 * speed);
-        if (waypointIndex + futureSteps < path.size()) {
-            return path.get(waypointIndex + futureSteps);
-        } else {
-            return path.getLast();
-        }
+        double ahead = Math.min(distance() + 0.75 * speed, path.totalLength());
+        int index = path.segmentAt(ahead);
+        return new Point((int) Math.round(path.xAt(index, ahead)), (int) Math.round(path.yAt(index, ahead)));
     }
 
     /**
@@ -157,54 +245,101 @@ public class AnimatedEntity extends Entity {
      * @param duration the duration of the slow effect in seconds
      */
     public void applySlow(double factor, double duration) {
+        if (store != null) {
+            if (store.slowTimer[slot] <= 0) {
+                store.speedModifier[slot] = factor;
+                store.status[slot] |= STATUS_SLOWED;
+            }
+            store.slowTimer[slot] = duration;
+            return;
+        }
         if (slowTimer <= 0) {
             speedModifier = factor;
-            if (SNOWFLAKE != null && !effectStack.contains(SNOWFLAKE)) {
-                effectStack.addLast(SNOWFLAKE);
-            }
+            status |= STATUS_SLOWED;
         }
         slowTimer = duration;
     }
 
+    /**
+     * Scales the time this entity experiences, which speeds up both its
+     * movement and its animation.
+     *
+     * @param scale the time multiplier, 1 for normal speed
+     */
+    protected void setTimeScale(double scale) {
+        if (store != null) {
+            store.timeScale[slot] = scale;
+        } else {
+            timeScale = scale;
+        }
+    }
+
+    /**
+     * Sets or clears a status flag shown as an icon above the health bar.
+     *
+     * @param flag    one of the {@code STATUS_*} flags
+     * @param enabled whether the flag should be set
+     */
+    protected void setStatus(int flag, boolean enabled) {
+        int current = status();
+        int updated = enabled ? current | flag : current & ~flag;
+        if (store != null) {
+            store.status[slot] = (byte) updated;
+        } else {
+            status = updated;
+        }
+    }
+
+    private int status() {
+        return store != null ? store.status[slot] : status;
+    }
+
     /**
      * Renders the entity's current animation frame and status effects.
      *
-     * @param gc the graphics context to draw to
+     * @param queue the render queue of the frame
+     * @param alpha fraction of a tick elapsed since the last tick
      */
     @Override
-    public void render(GraphicsContext gc) {
-        double spriteWidth = frames[currentFrame].getWidth();
-        double spriteHeight = frames[currentFrame].getHeight();
-        double drawX = x - spriteWidth / 2;
-        double drawY = y - spriteHeight / 2;
-        gc.drawImage(frames[currentFrame], drawX, drawY);
+    public void render(RenderQueue queue, double alpha) {
+        Image frame = frames()[currentFrame()];
+        double spriteWidth = frame.getWidth();
+        double spriteHeight = frame.getHeight();
+        double drawX = getRenderX(alpha) - spriteWidth / 2;
+        double drawY = getRenderY(alpha) - spriteHeight / 2;
+        queue.drawImage(RenderQueue.LAYER_UNITS, frame, drawX, drawY);
         double barWidth = spriteWidth * 0.3;
         double barHeight = 3;
         double barX = drawX + (spriteWidth - barWidth) / 2;
         double barY = drawY + (spriteHeight * 0.7);
-        double healthRatio = Math.max(0, Math.min(1, hp / 100.0));
+        double healthRatio = Math.max(0, Math.min(1, getHP() / 100.0));
         double filledWidth = barWidth * healthRatio;
-        gc.setFill(javafx.scene.paint.Color.web("#330000"));
-        gc.fillRoundRect(barX, barY, barWidth, barHeight, barHeight, barHeight);
-        gc.setFill(javafx.scene.paint.Color.web("#33cc33"));
-        gc.fillRoundRect(barX, barY, filledWidth, barHeight, barHeight, barHeight);
+        queue.fillRoundRect(RenderQueue.LAYER_OVERLAY, RenderQueue.HEALTH_BACK, barX, barY, barWidth, barHeight, barHeight);
+        queue.fillRoundRect(RenderQueue.LAYER_OVERLAY, RenderQueue.HEALTH_FILL, barX, barY, filledWidth, barHeight, barHeight);
         double iconSize = 15;
         double stackX = barX;
         double stackY = barY - iconSize - 2;
-        List<Image> icons = new ArrayList<>(effectStack);
-        for (Image icon : icons) {
-            gc.drawImage(icon, stackX, stackY, iconSize, iconSize);
+        int flags = status();
+        for (int bit = 0; bit < STATUS_ICONS.length; bit++) {
+            if ((flags & (1 << bit)) == 0) continue;
+            Image icon = ImageLoader.getImage(STATUS_ICONS[bit]);
+            if (icon == null) continue;
+            queue.drawImage(RenderQueue.LAYER_OVERLAY, icon, stackX, stackY, iconSize, iconSize);
             stackX += iconSize + 2;
         }
     }
 
+    private int currentFrame() {
+        return store != null ? store.frame[slot] : currentFrame;
+    }
+
     /**
      * Gets the current speed modifier applied to the entity.
      *
      * @return the speed modifier
      */
     public double getSpeedModifier() {
-        return speedModifier;
+        return store != null ? store.speedModifier[slot] : speedModifier;
     }
 
     /**
@@ -233,7 +368,7 @@ public class AnimatedEntity extends Entity {
      * @return the width of the sprite frame in pixels
      */
     protected double getSpriteWidth() {
-        return frames[currentFrame].getWidth();
+        return frames()[currentFrame()].getWidth();
     }
 
     /**
@@ -242,34 +377,86 @@ public class AnimatedEntity extends Entity {
      * @return the height of the sprite frame in pixels
      */
     protected double getSpriteHeight() {
-        return frames[currentFrame].getHeight();
+        return frames()[currentFrame()].getHeight();
+    }
+
+    /**
+     * Sends the entity along a new path from its start, e.g. after the road
+     * ahead was blocked. The path should start where the entity stands.
+     *
+     * @param path the new path
+     */
+    public void setPath(PathPolyline path) {
+        this.path = path;
+        if (store != null) {
+            store.paths[slot] = path;
+        }
+        resetToStart();
     }
 
     /**
      * Resets the entity's position to the start of its path.
      */
     public void resetToStart() {
-        Point start = path.getFirst();
-        this.x = start.x();
-        this.y = start.y();
-        this.waypointIndex = 0;
+        if (store != null) {
+            store.x[slot] = store.prevX[slot] = path.startX();
+            store.y[slot] = store.prevY[slot] = path.startY();
+            store.distance[slot] = 0;
+            store.segment[slot] = 0;
+            return;
+        }
+        this.x = this.prevX = path.startX();
+        this.y = this.prevY = path.startY();
+        this.distance = 0;
+        this.segment = 0;
     }
 
     /**
-     * Scales an image to the specified width and height.
-     *
-     * @param src          the original image
-     * @param targetWidth  the desired width of the scaled image
-     * @param targetHeight the desired height of the scaled image
-     * @return the scaled image
+     * Copies this entity's state into the given slot of a store and binds
+     * the entity to it.
+     */
+    void attach(EnemyStore store, int slot) {
+        store.x[slot] = x;
+        store.y[slot] = y;
+        store.prevX[slot] = prevX;
+        store.prevY[slot] = prevY;
+        store.hp[slot] = hp;
+        store.speed[slot] = speed;
+        store.speedModifier[slot] = speedModifier;
+        store.slowTimer[slot] = slowTimer;
+        store.timeScale[slot] = timeScale;
+        store.distance[slot] = distance;
+        store.segment[slot] = segment;
+        store.frame[slot] = currentFrame;
+        store.frameTimer[slot] = frameTimer;
+        store.frameDuration[slot] = frameDuration;
+        store.frameCount[slot] = frameCount;
+        store.status[slot] = (byte) status;
+        store.paths[slot] = path;
+        store.owners[slot] = this;
+        this.store = store;
+        this.slot = slot;
+    }
+
+    /**
+     * Copies the state held by the store back into this entity's fields and
+     * unbinds it.
      */
-    private Image scaleImage(Image src, double targetWidth, double targetHeight) {
-        javafx.scene.canvas.Canvas tempCanvas = new javafx.scene.canvas.Canvas(targetWidth, targetHeight);
-        GraphicsContext gc = tempCanvas.getGraphicsContext2D();
-        gc.clearRect(0, 0, targetWidth, targetHeight);
-        gc.drawImage(src, 0, 0, targetWidth, targetHeight);
-        javafx.scene.SnapshotParameters params = new javafx.scene.SnapshotParameters();
-        params.setFill(javafx.scene.paint.Color.TRANSPARENT);
-        return tempCanvas.snapshot(params, null);
+    void detach() {
+        x = store.x[slot];
+        y = store.y[slot];
+        prevX = store.prevX[slot];
+        prevY = store.prevY[slot];
+        hp = store.hp[slot];
+        speedModifier = store.speedModifier[slot];
+        slowTimer = store.slowTimer[slot];
+        timeScale = store.timeScale[slot];
+        distance = store.distance[slot];
+        segment = store.segment[slot];
+        currentFrame = store.frame[slot];
+        frameTimer = store.frameTimer[slot];
+        status = store.status[slot];
+        store = null;
+        slot = -1;
     }
 }
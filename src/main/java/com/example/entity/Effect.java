@@ -1,25 +1,28 @@
 package com.example.entity;
 
-import com.example.game.GameManager;
-import javafx.scene.canvas.GraphicsContext;
+import com.example.game.Simulation;
+import com.example.ui.SpriteFrameCache;
+import com.example.ui.RenderQueue;
 import javafx.scene.image.Image;
-import javafx.scene.image.WritableImage;
 
 /**
  * Represents an animated effect entity in the game.
  * The effect is displayed using a series of frames from a sprite sheet.
  */
 public class Effect extends Entity {
-	private final Image[] frames;
-	private final double frameDuration;
-	private final double scaleFactor;
+	private String spriteSheet;
+	private int frameCount;
+	private int frameSize;
+	private Image[] frames;
+	private double frameDuration;
+	private double scaleFactor;
 	private double frameTimer = 0;
 	private int currentFrame = 0;
 
 	/**
 	 * Constructs an Effect entity.
 	 *
-	 * @param spriteSheet The sprite sheet containing the animation frames.
+	 * @param spriteSheet Resource path of the sprite sheet containing the animation frames.
 	 * @param frameCount The number of frames in the animation.
 	 * @param frameSize The size of each frame in the sprite sheet.
 	 * @param frameDuration The duration of each frame in seconds.
@@ -27,25 +30,72 @@ public class Effect extends Entity {
 	 * @param x The x-coordinate of the effect's position.
 	 * @param y The y-coordinate of the effect's position.
 	 */
-	public Effect(Image spriteSheet,
+	public Effect(String spriteSheet,
 				  int frameCount,
 				  int frameSize,
 				  double frameDuration,
 				  double scaleFactor,
 				  double x, double y)
 	{
-		super(x, y, 0);
+		this();
+		reset(spriteSheet, frameCount, frameSize, frameDuration, scaleFactor, x, y);
+	}
+
+	/**
+	 * Constructs a finished effect to be set up later with {@link #reset}.
+	 */
+	public Effect()
+	{
+		super(0, 0, 0);
+	}
+
+	/**
+	 * Reinitialises this effect to play a new animation from its first frame.
+	 *
+	 * @param spriteSheet Resource path of the sprite sheet containing the animation frames.
+	 * @param frameCount The number of frames in the animation.
+	 * @param frameSize The size of each frame in the sprite sheet.
+	 * @param frameDuration The duration of each frame in seconds.
+	 * @param scaleFactor The scaling factor for rendering the effect.
+	 * @param x The x-coordinate of the effect's position.
+	 * @param y The y-coordinate of the effect's position.
+	 */
+	public final void reset(String spriteSheet,
+							int frameCount,
+							int frameSize,
+							double frameDuration,
+							double scaleFactor,
+							double x, double y)
+	{
+		if (!spriteSheet.equals(this.spriteSheet) || frameSize != this.frameSize || frameCount != this.frameCount)
+		{
+			this.frames = null;
+		}
+		this.x = x;
+		this.y = y;
+		this.prevX = x;
+		this.prevY = y;
 		this.frameDuration = frameDuration;
 		this.scaleFactor = scaleFactor;
-		this.frames = new Image[frameCount];
+		this.spriteSheet = spriteSheet;
+		this.frameCount = frameCount;
+		this.frameSize = frameSize;
+		this.frameTimer = 0;
+		this.currentFrame = 0;
+	}
 
-		for (int i = 0; i < frameCount; i++) {
-			frames[i] = new WritableImage(
-					spriteSheet.getPixelReader(),
-					i * frameSize, 0,
-					frameSize, frameSize
-			);
+	/**
+	 * Returns the animation frames, slicing them from the sprite sheet on
+	 * first use so that headless simulation runs never touch image data.
+	 * The frames are shared with every other effect using the same sheet.
+	 *
+	 * @return The animation frames.
+	 */
+	private Image[] frames() {
+		if (frames == null) {
+			frames = SpriteFrameCache.getFrames(spriteSheet, frameSize, frameCount, 1.0);
 		}
+		return frames;
 	}
 
 	/**
@@ -57,8 +107,8 @@ public class Effect extends Entity {
 	 */
 	@Override
 	public void update(double dt) {
-		if ( currentFrame >= frames.length ) {
-			GameManager.getInstance().removeEntity(this);
+		if ( currentFrame >= frameCount ) {
+			Simulation.current().removeEntity(this);
 		}
 		else
 		{
@@ -72,22 +122,17 @@ public class Effect extends Entity {
 	}
 
 	/**
-	 * Renders the current frame of the effect to the graphics context.
+	 * Queues the current frame of the effect for rendering.
 	 *
-	 * @param gc The graphics context used for rendering.
+	 * @param queue The render queue of the frame.
+	 * @param alpha Fraction of a tick elapsed since the last tick.
 	 */
 	@Override
-	public void render(GraphicsContext gc) {
-		if ( currentFrame < frames.length )
+	public void render(RenderQueue queue, double alpha) {
+		if ( currentFrame < frameCount )
 		{
-			double spriteWidth = frames[currentFrame].getWidth();
-			double spriteHeight = frames[currentFrame].getHeight();
-
-			gc.save();
-			gc.translate(x, y);
-			gc.scale(scaleFactor, scaleFactor);
-			gc.drawImage(frames[currentFrame], -spriteWidth / 2, -spriteHeight / 2);
-			gc.restore();
+			queue.drawRotated(RenderQueue.LAYER_EFFECTS, frames()[currentFrame],
+					getRenderX(alpha), getRenderY(alpha), 0, scaleFactor);
 		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,199 @@
+package com.example.entity;
+
+import com.example.utils.PathPolyline;
+
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays storage for live enemies. The state that changes every
+ * tick is kept in parallel primitive columns indexed by slot, so advancing
+ * all enemies is a single loop over flat arrays rather than a walk over
+ * individual entity objects. Removal swaps the last slot into the freed one,
+ * which keeps the columns dense; the columns only grow, so a store that has
+ * reached the size of the largest wave does not allocate again.
+ * <p>
+ * {@link AnimatedEntity} instances stay the handles the rest of the game
+ * works with; while stored, their accessors read from these columns.
+ */
+public class EnemyStore {
+    private static final int STATUS_SLOWED = AnimatedEntity.STATUS_SLOWED;
+
+    double[] x, y;
+    double[] prevX, prevY;
+    int[] hp;
+    double[] speed;
+    double[] speedModifier;
+    double[] slowTimer;
+    double[] timeScale;
+    double[] distance;
+    int[] segment;
+    int[] frame;
+    double[] frameTimer;
+    double[] frameDuration;
+    int[] frameCount;
+    byte[] status;
+    PathPolyline[] paths;
+    AnimatedEntity[] owners;
+    private int size = 0;
+
+    /** Creates an empty store with a small initial capacity. */
+    public EnemyStore() {
+        this(64);
+    }
+
+    /**
+     * Creates an empty store.
+     *
+     * @param capacity number of enemies to reserve room for
+     */
+    public EnemyStore(int capacity) {
+        allocate(Math.max(1, capacity));
+    }
+
+    private void allocate(int capacity) {
+        x = new double[capacity];
+        y = new double[capacity];
+        prevX = new double[capacity];
+        prevY = new double[capacity];
+        hp = new int[capacity];
+        speed = new double[capacity];
+        speedModifier = new double[capacity];
+        slowTimer = new double[capacity];
+        timeScale = new double[capacity];
+        distance = new double[capacity];
+        segment = new int[capacity];
+        frame = new int[capacity];
+        frameTimer = new double[capacity];
+        frameDuration = new double[capacity];
+        frameCount = new int[capacity];
+        status = new byte[capacity];
+        paths = new PathPolyline[capacity];
+        owners = new AnimatedEntity[capacity];
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        hp = Arrays.copyOf(hp, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        speedModifier = Arrays.copyOf(speedModifier, capacity);
+        slowTimer = Arrays.copyOf(slowTimer, capacity);
+        timeScale = Arrays.copyOf(timeScale, capacity);
+        distance = Arrays.copyOf(distance, capacity);
+        segment = Arrays.copyOf(segment, capacity);
+        frame = Arrays.copyOf(frame, capacity);
+        frameTimer = Arrays.copyOf(frameTimer, capacity);
+        frameDuration = Arrays.copyOf(frameDuration, capacity);
+        frameCount = Arrays.copyOf(frameCount, capacity);
+        status = Arrays.copyOf(status, capacity);
+        paths = Arrays.copyOf(paths, capacity);
+        owners = Arrays.copyOf(owners, capacity);
+    }
+
+    /**
+     * Moves an enemy's state into the store.
+     *
+     * @param enemy enemy to store; must not already be in a store
+     * @throws IllegalArgumentException if the enemy is already stored
+     */
+    public void add(AnimatedEntity enemy) {
+        if (enemy.store != null) {
+            throw new IllegalArgumentException("Enemy is already stored.");
+        }
+        if (size == x.length) grow();
+        enemy.attach(this, size++);
+    }
+
+    /**
+     * Moves an enemy's state back into the entity and frees its slot by
+     * swapping the last stored enemy into it.
+     *
+     * @param enemy enemy to remove; ignored if it is not in this store
+     */
+    public void remove(AnimatedEntity enemy) {
+        if (enemy.store != this) return;
+        int slot = enemy.slot;
+        enemy.detach();
+        int last = --size;
+        if (slot != last) {
+            x[slot] = x[last];
+            y[slot] = y[last];
+            prevX[slot] = prevX[last];
+            prevY[slot] = prevY[last];
+            hp[slot] = hp[last];
+            speed[slot] = speed[last];
+            speedModifier[slot] = speedModifier[last];
+            slowTimer[slot] = slowTimer[last];
+            timeScale[slot] = timeScale[last];
+            distance[slot] = distance[last];
+            segment[slot] = segment[last];
+            frame[slot] = frame[last];
+            frameTimer[slot] = frameTimer[last];
+            frameDuration[slot] = frameDuration[last];
+            frameCount[slot] = frameCount[last];
+            status[slot] = status[last];
+            paths[slot] = paths[last];
+            owners[slot] = owners[last];
+            owners[slot].slot = slot;
+        }
+        paths[last] = null;
+        owners[last] = null;
+    }
+
+    /** Returns the number of stored enemies. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the enemy held in the given slot.
+     *
+     * @param slot slot index, below {@link #size()}
+     */
+    public AnimatedEntity get(int slot) {
+        return owners[slot];
+    }
+
+    /**
+     * Advances the animation, slow timers and movement of every stored enemy.
+     *
+     * @param dt the time delta in seconds
+     */
+    public void update(double dt) {
+        for (int i = 0; i < size; i++) {
+            prevX[i] = x[i];
+            prevY[i] = y[i];
+            double t = dt * timeScale[i];
+
+            double ft = frameTimer[i] + t;
+            if (ft >= frameDuration[i]) {
+                ft -= frameDuration[i];
+                frame[i] = (frame[i] + 1) % frameCount[i];
+            }
+            frameTimer[i] = ft;
+
+            PathPolyline path = paths[i];
+            double total = path.totalLength();
+            double s = distance[i];
+            if (s >= total) continue;
+
+            if (slowTimer[i] > 0) {
+                slowTimer[i] -= t;
+                if (slowTimer[i] <= 0) {
+                    speedModifier[i] = 1.0;
+                    status[i] &= ~STATUS_SLOWED;
+                }
+            }
+
+            s = Math.min(total, s + speed[i] * speedModifier[i] * t);
+            int seg = path.advance(segment[i], s);
+            x[i] = path.xAt(seg, s);
+            y[i] = path.yAt(seg, s);
+            distance[i] = s;
+            segment[i] = seg;
+        }
+    }
+}
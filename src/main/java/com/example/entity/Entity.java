@@ -1,14 +1,17 @@
 package com.example.entity;
 
 import com.example.utils.HP;
-import javafx.scene.canvas.GraphicsContext;
+import com.example.ui.RenderQueue;
 
 /**
  * Represents an abstract entity in the game with position and health attributes.
  */
 public abstract class Entity {
     protected double x, y;
+    protected double prevX, prevY;
     protected int hp;
+    int registryIndex = -1;
+    byte lifecycle = EntityRegistry.DETACHED;
 
     /**
      * Gets the Y-coordinate of the entity.
@@ -47,9 +50,33 @@ public abstract class Entity {
     public Entity(double x, double y, int hp) {
         this.x = x;
         this.y = y;
+        this.prevX = x;
+        this.prevY = y;
         this.hp = hp;
     }
 
+    /**
+     * Gets the X-coordinate to draw the entity at, between where it stood
+     * before the last tick and where it stands now.
+     *
+     * @param alpha Fraction of a tick elapsed since the last tick, from 0 to 1.
+     * @return The interpolated X-coordinate.
+     */
+    public double getRenderX(double alpha) {
+        return prevX + (getX() - prevX) * alpha;
+    }
+
+    /**
+     * Gets the Y-coordinate to draw the entity at, between where it stood
+     * before the last tick and where it stands now.
+     *
+     * @param alpha Fraction of a tick elapsed since the last tick, from 0 to 1.
+     * @return The interpolated Y-coordinate.
+     */
+    public double getRenderY(double alpha) {
+        return prevY + (getY() - prevY) * alpha;
+    }
+
     /**
      * Updates the state of the entity.
      *
@@ -58,11 +85,12 @@ public abstract class Entity {
     public abstract void update(double dt);
 
     /**
-     * Renders the entity on the provided graphics context.
+     * Queues the draw commands of the entity for the current frame.
      *
-     * @param gc The graphics context used for rendering.
+     * @param queue The render queue of the frame.
+     * @param alpha Fraction of a tick elapsed since the last tick, from 0 to 1.
      */
-    public abstract void render(GraphicsContext gc);
+    public abstract void render(RenderQueue queue, double alpha);
 
     /**
      * Handles click events on the entity.
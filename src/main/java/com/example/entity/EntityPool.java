@@ -0,0 +1,80 @@
+package com.example.entity;
+
+import java.util.function.Supplier;
+
+/**
+ * Free list of short-lived entities that can be reinitialised instead of
+ * allocated anew. Released entities are kept up to a fixed capacity; any
+ * beyond that are left to the garbage collector. Hits and misses are counted
+ * so that the pool sizes can be checked while the game is running.
+ *
+ * @param <T> the pooled entity type
+ */
+public class EntityPool<T extends Entity> {
+    private final Supplier<T> factory;
+    private final Object[] free;
+    private int size = 0;
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param factory  creates a blank entity when the pool is empty
+     * @param capacity maximum number of released entities kept for reuse
+     */
+    public EntityPool(Supplier<T> factory, int capacity) {
+        this.factory = factory;
+        this.free = new Object[capacity];
+    }
+
+    /**
+     * Takes an entity from the pool, or creates one if the pool is empty.
+     * The caller must reinitialise it before use.
+     *
+     * @return a detached entity
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if (size == 0) {
+            misses++;
+            return factory.get();
+        }
+        hits++;
+        T entity = (T) free[--size];
+        free[size] = null;
+        return entity;
+    }
+
+    /**
+     * Returns an entity to the pool. The entity must no longer be referenced
+     * by the game.
+     *
+     * @param entity the entity to recycle
+     */
+    public void release(T entity) {
+        if (size < free.length) {
+            free[size++] = entity;
+        }
+    }
+
+    /** Returns how many acquisitions were served from the pool. */
+    public long getHits() {
+        return hits;
+    }
+
+    /** Returns how many acquisitions had to create a new entity. */
+    public long getMisses() {
+        return misses;
+    }
+
+    /** Returns the number of entities currently waiting for reuse. */
+    public int getAvailable() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + hits + " misses=" + misses + " available=" + size;
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.entity;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Owns the live entities of a game session. Live entities are kept densely
+ * packed in an array; every entity remembers its own slot, so it acts as a
+ * stable handle and removing it is an O(1) swap with the last slot rather
+ * than a list scan. Adds and removes requested while entities are updating
+ * are buffered and only applied by {@link #flush()}, which empties the
+ * buffers again. The order of live entities is therefore not the order they
+ * were added in.
+ * <p>
+ * The registry also counts live entities per concrete type, and reports
+ * every entity it lets go of to an optional listener so that pooled entities
+ * can be recycled once nothing refers to them any more.
+ */
+public class EntityRegistry implements Iterable<Entity> {
+    static final byte DETACHED = 0;
+    static final byte PENDING_ADD = 1;
+    static final byte LIVE = 2;
+    static final byte PENDING_REMOVE = 3;
+
+    private Entity[] live = new Entity[64];
+    private int size = 0;
+    private Entity[] pendingAdd = new Entity[16];
+    private int pendingAddCount = 0;
+    private Entity[] pendingRemove = new Entity[16];
+    private int pendingRemoveCount = 0;
+    private final Map<Class<? extends Entity>, int[]> counts = new HashMap<>();
+    private Consumer<Entity> onRemoved = e -> { };
+
+    /**
+     * Sets the listener called after an entity has been removed.
+     *
+     * @param onRemoved receives each entity as it leaves the registry
+     */
+    public void setOnRemoved(Consumer<Entity> onRemoved) {
+        this.onRemoved = onRemoved;
+    }
+
+    /**
+     * Schedules an entity to become live on the next {@link #flush()}.
+     * Adding an entity that is already live or pending is ignored, and adding
+     * one that is pending removal cancels the removal.
+     *
+     * @param entity the entity to add
+     */
+    public void add(Entity entity) {
+        switch (entity.lifecycle) {
+            case DETACHED -> {
+                entity.lifecycle = PENDING_ADD;
+                pendingAdd = push(pendingAdd, pendingAddCount++, entity);
+            }
+            case PENDING_REMOVE -> entity.lifecycle = LIVE;
+            default -> { }
+        }
+    }
+
+    /**
+     * Schedules an entity to be removed on the next {@link #flush()}.
+     * Removing an entity that is pending addition cancels the addition;
+     * removing one that is not in the registry is ignored.
+     *
+     * @param entity the entity to remove
+     */
+    public void remove(Entity entity) {
+        switch (entity.lifecycle) {
+            case LIVE -> {
+                entity.lifecycle = PENDING_REMOVE;
+                pendingRemove = push(pendingRemove, pendingRemoveCount++, entity);
+            }
+            case PENDING_ADD -> entity.lifecycle = DETACHED;
+            default -> { }
+        }
+    }
+
+    /**
+     * Makes an entity live immediately. Must not be called while the live
+     * entities are being iterated.
+     *
+     * @param entity the entity to add
+     */
+    public void addNow(Entity entity) {
+        if (entity.lifecycle == LIVE || entity.lifecycle == PENDING_REMOVE) {
+            entity.lifecycle = LIVE;
+            return;
+        }
+        attach(entity);
+    }
+
+    /**
+     * Removes an entity immediately. Must not be called while the live
+     * entities are being iterated.
+     *
+     * @param entity the entity to remove
+     */
+    public void removeNow(Entity entity) {
+        if (entity.lifecycle == LIVE || entity.lifecycle == PENDING_REMOVE) {
+            detach(entity);
+        } else {
+            entity.lifecycle = DETACHED;
+        }
+    }
+
+    /**
+     * Applies all pending removals, then all pending additions, and empties
+     * both buffers.
+     */
+    public void flush() {
+        for (int i = 0; i < pendingRemoveCount; i++) {
+            Entity e = pendingRemove[i];
+            pendingRemove[i] = null;
+            if (e.lifecycle == PENDING_REMOVE) detach(e);
+        }
+        pendingRemoveCount = 0;
+        for (int i = 0; i < pendingAddCount; i++) {
+            Entity e = pendingAdd[i];
+            pendingAdd[i] = null;
+            if (e.lifecycle == PENDING_ADD) attach(e);
+        }
+        pendingAddCount = 0;
+    }
+
+    private void attach(Entity entity) {
+        live = push(live, size, entity);
+        entity.registryIndex = size++;
+        entity.lifecycle = LIVE;
+        counts.computeIfAbsent(entity.getClass(), k -> new int[1])[0]++;
+    }
+
+    private void detach(Entity entity) {
+        int index = entity.registryIndex;
+        Entity last = live[--size];
+        live[index] = last;
+        last.registryIndex = index;
+        live[size] = null;
+        entity.registryIndex = -1;
+        entity.lifecycle = DETACHED;
+        counts.get(entity.getClass())[0]--;
+        onRemoved.accept(entity);
+    }
+
+    private static Entity[] push(Entity[] array, int index, Entity entity) {
+        if (index == array.length) {
+            array = Arrays.copyOf(array, index * 2);
+        }
+        array[index] = entity;
+        return array;
+    }
+
+    /**
+     * Returns whether the entity is currently live, including live entities
+     * that are pending removal.
+     */
+    public boolean contains(Entity entity) {
+        return entity.lifecycle == LIVE || entity.lifecycle == PENDING_REMOVE;
+    }
+
+    /** Returns the number of live entities. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the live entity at the given index.
+     *
+     * @param index index below {@link #size()}
+     */
+    public Entity get(int index) {
+        return live[index];
+    }
+
+    /**
+     * Returns the number of live entities of exactly the given type.
+     *
+     * @param type the concrete entity class
+     */
+    public int count(Class<? extends Entity> type) {
+        int[] count = counts.get(type);
+        return count == null ? 0 : count[0];
+    }
+
+    /** Returns the number of buffered requests waiting for {@link #flush()}. */
+    public int pendingCount() {
+        return pendingAddCount + pendingRemoveCount;
+    }
+
+    @Override
+    public Iterator<Entity> iterator() {
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Entity next() {
+                if (next >= size) throw new NoSuchElementException();
+                return live[next++];
+            }
+        };
+    }
+}
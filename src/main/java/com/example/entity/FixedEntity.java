@@ -1,6 +1,6 @@
 package com.example.entity;
 
-import javafx.scene.canvas.GraphicsContext;
+import com.example.ui.RenderQueue;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 
@@ -35,13 +35,14 @@ public class FixedEntity extends Entity {
 	}
 
 	/**
-	 * Renders the entity on the provided graphics context.
+	 * Queues the entity's image for rendering.
 	 *
-	 * @param gc the graphics context used for rendering
+	 * @param queue the render queue of the frame
+	 * @param alpha fraction of a tick elapsed since the last tick; fixed entities do not move
 	 */
 	@Override
-	public void render(GraphicsContext gc) {
-		gc.drawImage(image, x, y);
+	public void render(RenderQueue queue, double alpha) {
+		queue.drawImage(RenderQueue.LAYER_GROUND, image, x, y);
 	}
 
 	/**
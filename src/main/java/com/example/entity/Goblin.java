@@ -1,19 +1,16 @@
 package com.example.entity;
 
+import com.example.utils.PathPolyline;
 import com.example.utils.Point;
-import javafx.scene.image.Image;
 
 import java.util.List;
-import java.util.Objects;
 
 /**
  * Represents a Goblin enemy in the game, which animates using a horizontal sprite sheet.
  * This entity follows a predefined path and interacts with towers in the game.
  */
 public class Goblin extends AnimatedEntity {
-    private static final Image SPRITE_SHEET = new Image(
-            Objects.requireNonNull(Goblin.class.getResourceAsStream("/com/example/assets/enemies/Goblin_Red.png"))
-    );
+    private static final String SPRITE_SHEET = "/com/example/assets/enemies/Goblin_Red.png";
 
     private static final int FRAMES = 6;
     private static final int FRAME_SIZE = 192;
@@ -34,6 +31,17 @@ public class Goblin extends AnimatedEntity {
         super(SPRITE_SHEET, FRAMES, FRAME_SIZE, FRAME_SECONDS, path, speed, hp, SCALE_FACTOR);
     }
 
+    /**
+     * Constructs a Goblin entity following a simplified, possibly shared path.
+     *
+     * @param path  The path the Goblin will follow.
+     * @param speed The movement speed of the Goblin.
+     * @param hp    The health points of the Goblin.
+     */
+    public Goblin(PathPolyline path, double speed, int hp) {
+        super(SPRITE_SHEET, FRAMES, FRAME_SIZE, FRAME_SECONDS, path, speed, hp, SCALE_FACTOR);
+    }
+
     /**
      * Modifies the damage dealt to the Goblin based on the type of tower attacking it.
      *
@@ -1,31 +1,25 @@
 package com.example.entity;
 
-import com.example.game.GameManager;
-import javafx.scene.canvas.GraphicsContext;
+import com.example.game.Simulation;
+import com.example.ui.ImageLoader;
+import com.example.ui.RenderQueue;
 import javafx.scene.image.Image;
 import javafx.scene.image.WritableImage;
 
-import java.util.Objects;
-
 /**
  * Represents a Gold Bag entity that provides gold to the player when clicked.
  */
 public class GoldBag extends Entity {
-    private static final Image SPRITE_SHEET = new Image(Objects.requireNonNull(
-            GoldBag.class.getResourceAsStream("/com/example/assets/items/gold_bag.png")));
+    private static final String SPRITE_SHEET = "/com/example/assets/items/gold_bag.png";
 
     private static final int FRAME_WIDTH = 64;
     private static final int FRAME_HEIGHT = 64;
     private static final double SCALE = 0.55;
 
-    private final int amount;
+    private int amount;
     private double timer = 1000.0;
 
-    private static final WritableImage STATIC_FRAME = new WritableImage(
-            SPRITE_SHEET.getPixelReader(),
-            0, 0,
-            FRAME_WIDTH, FRAME_HEIGHT
-    );
+    private static Image staticFrame;
 
     /**
      * Constructs a Gold Bag entity.
@@ -39,6 +33,28 @@ public class GoldBag extends Entity {
         this.amount = amount;
     }
 
+    /**
+     * Constructs an empty Gold Bag to be set up later with {@link #reset}.
+     */
+    public GoldBag() {
+        this(0, 0, 0);
+    }
+
+    /**
+     * Reinitialises this Gold Bag as a freshly dropped one.
+     *
+     * @param x The x-coordinate of the Gold Bag.
+     * @param y The y-coordinate of the Gold Bag.
+     * @param amount The amount of gold contained in the Gold Bag.
+     */
+    public void reset(double x, double y, int amount) {
+        this.x = x;
+        this.y = y;
+        this.hp = 1;
+        this.amount = amount;
+        this.timer = 1000.0;
+    }
+
     /**
      * Updates the Gold Bag's state, including its lifetime.
      *
@@ -48,23 +64,41 @@ public class GoldBag extends Entity {
     public void update(double dt) {
         timer -= dt;
         if (timer <= 0) {
-            GameManager.getInstance().removeEntity(this);
+            Simulation.current().removeEntity(this);
         }
     }
 
     /**
      * Renders the Gold Bag on the game screen.
      *
-     * @param gc The graphics context used for rendering.
+     * @param queue The render queue of the frame.
+     * @param alpha Fraction of a tick elapsed since the last tick; gold bags do not move.
      */
     @Override
-    public void render(GraphicsContext gc) {
+    public void render(RenderQueue queue, double alpha) {
         double drawWidth = FRAME_WIDTH * SCALE;
         double drawHeight = FRAME_HEIGHT * SCALE;
         double drawX = x - drawWidth / 2;
         double drawY = y - drawHeight / 2;
 
-        gc.drawImage(STATIC_FRAME, drawX, drawY, drawWidth, drawHeight);
+        queue.drawImage(RenderQueue.LAYER_UNITS, staticFrame(), drawX, drawY, drawWidth, drawHeight);
+    }
+
+    /**
+     * Returns the first frame of the gold bag sprite sheet, sliced on first
+     * use so that headless simulation runs never touch image data.
+     *
+     * @return The static gold bag frame.
+     */
+    private static Image staticFrame() {
+        if (staticFrame == null) {
+            staticFrame = new WritableImage(
+                    ImageLoader.getImage(SPRITE_SHEET).getPixelReader(),
+                    0, 0,
+                    FRAME_WIDTH, FRAME_HEIGHT
+            );
+        }
+        return staticFrame;
     }
 
     /**
@@ -72,8 +106,9 @@ public class GoldBag extends Entity {
      */
     @Override
     public void onClick() {
-        GameManager.getInstance().getPlayerState().addGold(amount);
-        GameManager.getInstance().removeEntity(this);
+        Simulation sim = Simulation.current();
+        sim.getPlayerState().addGold(amount);
+        sim.removeEntity(this);
     }
 
     /**
@@ -1,27 +1,32 @@
 package com.example.entity;
 
 import com.example.controllers.GameScreenController;
-import com.example.game.GameManager;
+import com.example.game.Simulation;
 import com.example.ui.ImageLoader;
-import javafx.scene.canvas.GraphicsContext;
+import com.example.ui.RenderQueue;
+import com.example.utils.Point;
 import javafx.scene.image.Image;
-import javafx.scene.image.PixelReader;
-import javafx.scene.image.PixelWriter;
-import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
 
 /**
  * Represents a projectile fired by a tower to deliver damage to a target.
  */
 public class Projectile extends Entity {
-    private final Image image;
+    private static final String ARROW = "/com/example/assets/effects/arrow.png";
+    private static final String SPELL = "/com/example/assets/effects/spell.png";
+    private static final String BOMB = "/com/example/assets/effects/bomb.png";
+    // Upgraded mage towers fire spells in this tint
+    private static final Color SPELL_TINT = Color.CYAN;
+
+    private String imagePath;
+    private boolean tinted;
+    private Image image;
     private double x1, y1, x2, y2;
-    private double x, y;
     private double dx, dy;
     private double dirx, diry, magnitude;
     private double speed = 10;
     private double angle;
-    private double spin;
+    private double spin, prevSpin;
     private double spinSpeed;
     private boolean active;
     private AnimatedEntity target;
@@ -37,29 +42,48 @@ public class Projectile extends Entity {
      * @param target The entity the projectile should track.
      */
     public Projectile(Tower parent, double x1, double y1, AnimatedEntity target) {
+        this();
+        reset(parent, x1, y1, target);
+    }
+
+    /**
+     * Constructs an inactive projectile to be set up later with {@link #reset}.
+     */
+    public Projectile() {
         super(0, 0, 0);
+    }
+
+    /**
+     * Reinitialises this projectile as a fresh shot from the specified tower.
+     *
+     * @param parent The tower that spawned the projectile.
+     * @param x1 The starting x position in pixels.
+     * @param y1 The starting y position in pixels.
+     * @param target The entity the projectile should track.
+     */
+    public final void reset(Tower parent, double x1, double y1, AnimatedEntity target) {
+        String previousPath = imagePath;
+        boolean previousTint = tinted;
         switch (parent) {
             case ArcherTower _ -> {
-                image = ImageLoader.getImage("/com/example/assets/effects/arrow.png");
+                imagePath = ARROW;
+                tinted = false;
                 scaleFactor = 0.15;
             }
             case MageTower m -> {
-                Image base = ImageLoader.getImage("/com/example/assets/effects/spell.png");
-                if (m.upgradeLevel >= 2) {
-                    image = tintImage(base, Color.CYAN);
-                } else {
-                    image = base;
-                }
+                imagePath = SPELL;
+                tinted = m.upgradeLevel >= 2;
                 scaleFactor = 0.25;
             }
             case ArtilleryTower _ -> {
-                image = ImageLoader.getImage("/com/example/assets/effects/bomb.png");
+                imagePath = BOMB;
+                tinted = false;
                 scaleFactor = 0.15;
             }
-            default -> {
-                image = null;
-                throw new IllegalArgumentException();
-            }
+            default -> throw new IllegalArgumentException();
+        }
+        if (!imagePath.equals(previousPath) || tinted != previousTint) {
+            image = null;
         }
 
         this.active = true;
@@ -67,10 +91,13 @@ public class Projectile extends Entity {
         this.y1 = y1;
         this.x = x1;
         this.y = y1;
+        this.prevX = x1;
+        this.prevY = y1;
         this.target = target;
         this.parent = parent;
-        this.x2 = target.getFuturePosition().x();
-        this.y2 = target.getFuturePosition().y();
+        Point aim = target.getFuturePosition();
+        this.x2 = aim.x();
+        this.y2 = aim.y();
 
         dx = x2 - x1;
         dy = y2 - y1;
@@ -86,6 +113,7 @@ public class Projectile extends Entity {
             spinSpeed = 0;
         }
         spin = 0;
+        prevSpin = 0;
     }
 
     /**
@@ -95,20 +123,27 @@ public class Projectile extends Entity {
      */
     @Override
     public void update(double dt) {
+        prevX = x;
+        prevY = y;
+        prevSpin = spin;
         if (active) {
-            if (Math.abs(x - x2) + Math.abs(y - y2) > 1) {
-                x += dirx * speed * dt;
-                y += diry * speed * dt;
+            double step = speed * dt;
+            if (Math.hypot(x2 - x, y2 - y) > Math.max(step, 1)) {
+                x += dirx * step;
+                y += diry * step;
                 if (spinSpeed != 0) {
                     spin += spinSpeed * dt;
                 }
             } else {
+                // land exactly on the aim point instead of stepping past it
+                x = x2;
+                y = y2;
                 this.active = false;
                 if (parent instanceof ArtilleryTower) {
                     double radius = GameScreenController.TILE_SIZE;
                     int baseDmg = parent.baseDamage;
 
-                    for (AnimatedEntity enemy : GameManager.getInstance().enemiesWithinRadius(x, y, radius)) {
+                    for (AnimatedEntity enemy : Simulation.current().enemiesWithinRadius(x, y, radius)) {
                         if (enemy == target) {
                             int dmg = enemy.modifyDamage(parent, baseDmg);
                             enemy.applyDamage(dmg);
@@ -126,58 +161,39 @@ public class Projectile extends Entity {
                         a.applySlow(0.8, 4.0);
                     }
 
-                    if (parent instanceof MageTower && Math.random() < 0.03 && target.getHP() > 0) {
+                    if (parent instanceof MageTower && Simulation.current().getRandom().combat().nextDouble() < 0.03 && target.getHP() > 0) {
                         target.resetToStart();
                     }
                 }
 
-                GameManager.getInstance().removeEntity(this);
-                GameManager.getInstance().spawnEffect(parent, x, y);
+                Simulation.current().removeEntity(this);
+                Simulation.current().spawnEffect(parent, x, y);
             }
         }
     }
 
     /**
-     * Renders the projectile with its current rotation and scaling.
-     *
-     * @param gc The graphics context used for rendering.
+     * Loads every projectile image and tinted variant up front, so that the
+     * first shot of each kind does no image work while the game runs.
      */
-    public void render(GraphicsContext gc) {
-        gc.save();
-        gc.translate(x, y);
-        gc.rotate(angle + spin);
-        gc.scale(scaleFactor, scaleFactor);
-        gc.drawImage(image, -image.getWidth() / 2, -image.getHeight() / 2);
-        gc.restore();
+    public static void preloadImages() {
+        ImageLoader.getImage(ARROW);
+        ImageLoader.getImage(BOMB);
+        ImageLoader.getTinted(ImageLoader.getImage(SPELL), SPELL_TINT);
     }
 
     /**
-     * Returns a tinted copy of the source image used for spell upgrades.
+     * Renders the projectile with its current rotation and scaling.
      *
-     * @param src The source image to tint.
-     * @param tint The color tint to apply.
-     * @return A tinted copy of the source image.
+     * @param queue The render queue of the frame.
+     * @param alpha Fraction of a tick elapsed since the last tick.
      */
-    private static Image tintImage(Image src, Color tint) {
-        int w = (int) src.getWidth();
-        int h = (int) src.getHeight();
-        WritableImage out = new WritableImage(w, h);
-        PixelReader pr = src.getPixelReader();
-        PixelWriter pw = out.getPixelWriter();
-        for (int y = 0; y < h; y++) {
-            for (int x = 0; x < w; x++) {
-                int argb = pr.getArgb(x, y);
-                int a = (argb >> 24) & 0xFF;
-                int r = (argb >> 16) & 0xFF;
-                int g = (argb >> 8) & 0xFF;
-                int b = argb & 0xFF;
-                r = (int) Math.min(255, r * tint.getRed());
-                g = (int) Math.min(255, g * tint.getGreen());
-                b = (int) Math.min(255, b * tint.getBlue());
-                int outArgb = (a << 24) | (r << 16) | (g << 8) | b;
-                pw.setArgb(x, y, outArgb);
-            }
+    public void render(RenderQueue queue, double alpha) {
+        if (image == null) {
+            Image base = ImageLoader.getImage(imagePath);
+            image = tinted ? ImageLoader.getTinted(base, SPELL_TINT) : base;
         }
-        return out;
+        queue.drawRotated(RenderQueue.LAYER_PROJECTILES, image, getRenderX(alpha), getRenderY(alpha),
+                angle + prevSpin + (spin - prevSpin) * alpha, scaleFactor);
     }
 }
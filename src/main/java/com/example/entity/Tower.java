@@ -1,8 +1,8 @@
 package com.example.entity;
 
 import com.example.controllers.GameScreenController;
-import com.example.game.GameManager;
-import javafx.scene.canvas.GraphicsContext;
+import com.example.game.Simulation;
+import com.example.ui.RenderQueue;
 
 /**
  * Represents a generic tower entity in the game, capable of attacking enemies within range.
@@ -67,28 +67,32 @@ public abstract class Tower extends Entity {
      */
     @Override
     public void update(double dt) {
-        if (timerTime < attackCooldown) {
-            timerTime += dt;
-        } else {
-            AnimatedEntity nearestEnemy = GameManager.getInstance().nearestEnemy(this);
-            if (nearestEnemy != null) {
-                double dx = getX() * GameScreenController.TILE_SIZE - nearestEnemy.getX();
-                double dy = getY() * GameScreenController.TILE_SIZE - nearestEnemy.getY();
-                double distance = Math.sqrt(dx * dx + dy * dy);
+        timerTime += dt;
+        if (timerTime < attackCooldown) return;
 
-                if (distance <= range * GameScreenController.TILE_SIZE) {
-                    timerTime = 0;
-                    GameManager.getInstance().attackEntity(this, nearestEnemy);
-                }
+        AnimatedEntity nearestEnemy = Simulation.current().nearestEnemy(this);
+        if (nearestEnemy != null) {
+            double dx = getX() * GameScreenController.TILE_SIZE - nearestEnemy.getX();
+            double dy = getY() * GameScreenController.TILE_SIZE - nearestEnemy.getY();
+            double distance = Math.sqrt(dx * dx + dy * dy);
+
+            if (distance <= range * GameScreenController.TILE_SIZE) {
+                // carry the fractional part so the fire rate does not depend on the tick length
+                timerTime -= attackCooldown;
+                Simulation.current().attackEntity(this, nearestEnemy);
+                return;
             }
         }
+        // an idle tower stays ready but does not bank extra shots
+        timerTime = attackCooldown;
     }
 
     /**
      * Renders the tower on the game screen.
      *
-     * @param gc The graphics context used for rendering.
+     * @param queue The render queue of the frame.
+     * @param alpha Fraction of a tick elapsed since the last tick.
      */
     @Override
-    public void render(GraphicsContext gc) {}
+    public void render(RenderQueue queue, double alpha) {}
 }
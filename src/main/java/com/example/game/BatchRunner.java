@@ -0,0 +1,315 @@
+package com.example.game;
+
+import com.example.config.LevelConfig;
+import com.example.config.PlacementConfig;
+import com.example.config.PlacementConfig.TowerPlacement;
+import com.example.entity.EntityRegistry;
+import com.example.map.GameMap;
+import com.example.map.TileEnum;
+import com.example.map.TowerFactory;
+import com.example.player.PlayerState;
+import com.example.storage_manager.LevelStorageManager;
+import com.example.storage_manager.MapStorageManager;
+import com.example.utils.FlowField;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Command-line runner that plays levels headless for balance sweeps. Every
+ * combination of level, placement script and seed is run to completion on a
+ * fork/join pool spanning all cores, and one row per run is written as CSV or
+ * JSON lines. Maps and flow fields are loaded once per level and shared by
+ * all of its runs. Dropped gold is collected automatically, since nobody is
+ * there to click the bags.
+ * <p>
+ * Usage:
+ * <pre>
+ * BatchRunner [--levels level-1,level-2] [--placements placements.json]
+ *             [--seeds 100] [--seed-base 1] [--threads 8]
+ *             [--max-ticks 216000] [--format csv|jsonl] [--out results.csv]
+ * </pre>
+ * Levels default to every file in {@code cot/data/levels}. The placements
+ * file holds a JSON array of {@link PlacementConfig}s; without one, each
+ * level is run undefended.
+ */
+public class BatchRunner {
+    // One simulated hour
+    private static final long DEFAULT_MAX_TICKS = 60L * 60 * 60;
+
+    /** One run of the sweep. */
+    public record Run(String levelName, PlacementConfig placement, long seed) {}
+
+    /** Outcome of one run. */
+    public record Result(String level,
+                         String placement,
+                         long seed,
+                         boolean completed,
+                         boolean gameOver,
+                         int towersPlaced,
+                         int livesLost,
+                         int goldSpent,
+                         int goldEarned,
+                         int finalGold,
+                         int wavesReached,
+                         long ticks,
+                         double simSeconds,
+                         double wallMillis) {
+
+        static final String CSV_HEADER = "level,placement,seed,completed,game_over,towers_placed,lives_lost,"
+                + "gold_spent,gold_earned,final_gold,waves_reached,ticks,sim_seconds,wall_ms";
+
+        String toCsv() {
+            return String.join(",",
+                    csv(level), csv(placement), Long.toString(seed),
+                    Boolean.toString(completed), Boolean.toString(gameOver),
+                    Integer.toString(towersPlaced), Integer.toString(livesLost),
+                    Integer.toString(goldSpent), Integer.toString(goldEarned), Integer.toString(finalGold),
+                    Integer.toString(wavesReached), Long.toString(ticks),
+                    String.format("%.3f", simSeconds), String.format("%.3f", wallMillis));
+        }
+
+        private static String csv(String value) {
+            if (value.contains(",") || value.contains("\"")) {
+                return "\"" + value.replace("\"", "\"\"") + "\"";
+            }
+            return value;
+        }
+    }
+
+    /** A level loaded once and shared read-only by all of its runs. */
+    private record PreparedLevel(LevelConfig config, GameMap map, FlowField flowField) {}
+
+    private final Map<String, PreparedLevel> levels = new LinkedHashMap<>();
+    private final long maxTicks;
+
+    /**
+     * Creates a runner for the given levels, loading each map and solving
+     * its flow field up front.
+     *
+     * @param levelNames level file names without extension
+     * @param maxTicks   tick limit after which an unfinished run is cut off
+     * @throws IOException if a level or its map cannot be read
+     */
+    public BatchRunner(List<String> levelNames, long maxTicks) throws IOException {
+        this.maxTicks = maxTicks;
+        for (String name : levelNames) {
+            LevelConfig config = LevelStorageManager.loadLevel(name);
+            GameMap map = new GameMap(MapStorageManager.loadMapTypes(config.getMapName()));
+            levels.put(name, new PreparedLevel(config, map, Simulation.buildFlowField(map)));
+        }
+    }
+
+    /**
+     * Plays one run to completion, game over or the tick limit.
+     *
+     * @param run the run to play; its level must have been loaded by this runner
+     * @return the outcome of the run
+     */
+    public Result run(Run run) {
+        PreparedLevel level = levels.get(run.levelName());
+        if (level == null) {
+            throw new IllegalArgumentException("Level not loaded: " + run.levelName());
+        }
+        long start = System.nanoTime();
+        LevelConfig config = level.config();
+        PlayerState state = new PlayerState(config.getStartingGold(), config.getLives());
+        Simulation sim = new Simulation(level.map(), level.flowField(), new EntityRegistry(), state, run.seed());
+        sim.setAutoCollectGold(true);
+        sim.setWavesFromGroups(config.getWaves());
+
+        int placed = applyPlacement(sim, run.placement());
+        long ticks = sim.runUntilComplete(maxTicks);
+
+        return new Result(run.levelName(),
+                run.placement().getName(),
+                run.seed(),
+                sim.isLevelCompleted(),
+                sim.isGameOver(),
+                placed,
+                state.getMaxLives() - state.getLives(),
+                state.getGoldSpent(),
+                state.getGoldEarned(),
+                state.getGold(),
+                sim.getCurrentWave(),
+                ticks,
+                sim.getElapsedSeconds(),
+                (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * Builds the scripted towers in order, skipping any that are not on a free
+     * tower tile or cannot be afforded.
+     *
+     * @return the number of towers built
+     */
+    private static int applyPlacement(Simulation sim, PlacementConfig placement) {
+        if (placement.getTowers() == null) return 0;
+        GameMap map = sim.getMap();
+        PlayerState state = sim.getPlayerState();
+        Set<Long> used = new HashSet<>();
+        int placed = 0;
+        for (TowerPlacement t : placement.getTowers()) {
+            if (map.getTileType(t.getX(), t.getY()) != TileEnum.EMPTY_TOWER_TILE) continue;
+            if (!used.add(((long) t.getX() << 32) | t.getY())) continue;
+            int cost = TowerFactory.totalCost(t.getType(), t.getLevel());
+            if (state.getGold() < cost) continue;
+            state.spendGold(cost);
+            sim.placeTower(TowerFactory.build(t.getType(), t.getX(), t.getY(), t.getLevel()));
+            placed++;
+        }
+        return placed;
+    }
+
+    /**
+     * Plays all runs in parallel. Results are returned in the order of the runs.
+     *
+     * @param runs    runs to play
+     * @param threads number of worker threads
+     * @return one result per run
+     */
+    public List<Result> runAll(List<Run> runs, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.submit(() -> runs.parallelStream().map(this::run).toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch run interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch run failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Writes results as CSV with a header row.
+     *
+     * @param results results to write
+     * @param out     destination
+     * @throws IOException if writing fails
+     */
+    public static void writeCsv(List<Result> results, Writer out) throws IOException {
+        out.write(Result.CSV_HEADER);
+        out.write('\n');
+        for (Result r : results) {
+            out.write(r.toCsv());
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes results as JSON lines, one object per run.
+     *
+     * @param results results to write
+     * @param out     destination
+     * @throws IOException if writing fails
+     */
+    public static void writeJsonLines(List<Result> results, Writer out) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        for (Result r : results) {
+            out.write(mapper.writeValueAsString(r));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads placement scripts from a JSON array.
+     *
+     * @param file the placements file
+     * @return the placement scripts
+     * @throws IOException if the file cannot be read
+     */
+    public static List<PlacementConfig> loadPlacements(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            throw new IOException("Placement file not found: " + file.toAbsolutePath());
+        }
+        return new ObjectMapper().readValue(file.toFile(), new TypeReference<List<PlacementConfig>>() {});
+    }
+
+    public static void main(String[] args) {
+        try {
+            Map<String, String> options = parseOptions(args);
+
+            List<String> levelNames = options.containsKey("levels")
+                    ? Arrays.asList(options.get("levels").split(","))
+                    : LevelStorageManager.listAvailableLevels().stream().sorted().toList();
+            List<PlacementConfig> placements = options.containsKey("placements")
+                    ? loadPlacements(Path.of(options.get("placements")))
+                    : List.of(new PlacementConfig("none", List.of()));
+            int seeds = Integer.parseInt(options.getOrDefault("seeds", "10"));
+            long seedBase = Long.parseLong(options.getOrDefault("seed-base", "1"));
+            int threads = Integer.parseInt(options.getOrDefault("threads",
+                    Integer.toString(Runtime.getRuntime().availableProcessors())));
+            long maxTicks = Long.parseLong(options.getOrDefault("max-ticks", Long.toString(DEFAULT_MAX_TICKS)));
+            String outPath = options.get("out");
+            String format = options.getOrDefault("format",
+                    outPath != null && outPath.endsWith(".jsonl") ? "jsonl" : "csv");
+
+            List<Run> runs = new ArrayList<>();
+            for (String level : levelNames) {
+                for (PlacementConfig placement : placements) {
+                    for (int i = 0; i < seeds; i++) {
+                        runs.add(new Run(level, placement, seedBase + i));
+                    }
+                }
+            }
+
+            BatchRunner runner = new BatchRunner(levelNames, maxTicks);
+            long start = System.nanoTime();
+            List<Result> results = runner.runAll(runs, threads);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            try (Writer out = outPath != null
+                    ? Files.newBufferedWriter(Path.of(outPath), StandardCharsets.UTF_8)
+                    : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+                switch (format) {
+                    case "csv" -> writeCsv(results, out);
+                    case "jsonl" -> writeJsonLines(results, out);
+                    default -> throw new IllegalArgumentException("Unknown format: " + format);
+                }
+            }
+            System.err.printf("%d runs on %d threads in %.2f s%n", runs.size(), threads, seconds);
+        } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Usage: BatchRunner [--levels a,b] [--placements file.json] [--seeds N] "
+                    + "[--seed-base S] [--threads N] [--max-ticks N] [--format csv|jsonl] [--out file]");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Parses {@code --name value} pairs.
+     *
+     * @throws IllegalArgumentException if an option has no value or is not prefixed with {@code --}
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Bad option: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+}
@@ -37,7 +37,12 @@ public class GameEvent {
 		/**
 		 * Indicates a repaint event.
 		 */
-		REPAINT
+		REPAINT,
+
+		/**
+		 * Requests a sound cue; carries the audio path as data.
+		 */
+		SOUND
 	}
 
 	/**
@@ -2,9 +2,13 @@ package com.example.game;
 
 import com.example.controllers.GameScreenController;
 import com.example.entity.*;
+import com.example.map.GameMap;
+import com.example.map.TileEnum;
 import com.example.player.PlayerState;
+import com.example.storage_manager.ReplayStorageManager;
 import com.example.ui.AudioManager;
-import com.example.ui.ImageLoader;
+import com.example.ui.Camera;
+import com.example.ui.RenderQueue;
 import com.example.utils.PathFinder;
 import com.example.utils.Point;
 import javafx.animation.AnimationTimer;
@@ -12,40 +16,59 @@ import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Random;
 
 /**
- * Central orchestrator for game logic. Manages entity updates, wave spawning
- * and user state while running a fixed AnimationTimer loop. This singleton is
+ * Drives a {@link Simulation} from the JavaFX pulse and renders its state.
+ * Each frame the elapsed time, scaled by the game speed, is fed into the
+ * simulation in fixed ticks before the entities are drawn. This singleton is
  * initialised by {@link GameScreenController} when a level begins.
  */
 public class GameManager {
     private final Canvas canvas;
     private final GraphicsContext gc;
-    private final List<Entity> entities;
-    private final List<Entity> delayedAdd = new LinkedList<>();
-    private final List<Entity> delayedRemove = new LinkedList<>();
-    private final List<AnimatedEntity> enemies = new LinkedList<>();
+    private final RenderQueue renderQueue = new RenderQueue();
+    private final Camera camera;
+    private final Simulation simulation;
     private final IntegerProperty currentWaveProperty = new SimpleIntegerProperty(0);
     private long lastTime = 0;
-    private GameModel gameModel;
-    private PlayerState playerState;
+    private double accumulator = 0;
     private boolean paused = false;
     private double gameSpeedMultiplier = 1.0; // default speed
+    private CatchUp catchUp = CatchUp.CARRY;
+    private long droppedTicks = 0;
     private AnimationTimer gameLoop;
+    private ReplayRecorder recorder;
     private static GameManager instance;
-    private final List<Wave> waves = new ArrayList<>();
-    private int currentWaveIndex = 0;
-    private double timeUntilNextWave = 0;
-    private boolean waveInProgress = false;
-    private final Random rng = new Random();
-    private static final int LEVEL1_ARCHER_COST = 100;
+
+    // Upper bound on the frame time fed into the simulation after a stall
+    private static final double MAX_FRAME_SECONDS = 0.25;
+
+    // Most simulation ticks run in one frame; 16x at 15 fps still fits
+    private static final int MAX_TICKS_PER_FRAME = 64;
+
+    /**
+     * What to do with simulation time that did not fit into a frame's tick
+     * budget.
+     */
+    public enum CatchUp {
+        /** Keep up to one frame budget of backlog and run it in later frames. */
+        CARRY,
+        /** Discard the backlog, letting the game fall behind wall-clock time. */
+        DROP
+    }
+
+    // Ticks between state checksums in the replay log; ten seconds of game time
+    private static final int CHECKSUM_INTERVAL = 600;
+
+    // Entities further than this outside the view are not drawn; covers the
+    // largest sprite's half extent plus a tick of movement since indexing
+    private static final double CULL_MARGIN = 2 * GameScreenController.TILE_SIZE;
 
     // Debug flag - set to true to see path visualization
     private static final boolean DEBUG_PATH = false;
@@ -53,12 +76,12 @@ public class GameManager {
     /**
      * Create or replace the singleton instance used by the running game.
      *
-     * @param canvas   drawing surface for entities
-     * @param entities list that stores active entities
+     * @param canvas   drawing surface for entities, sized to the viewport
+     * @param entities registry that owns the active entities
      * @param model    underlying game model
      * @param state    player state for this session
      */
-    public static void initialize(Canvas canvas, List<Entity> entities, GameModel model, PlayerState state) {
+    public static void initialize(Canvas canvas, EntityRegistry entities, GameModel model, PlayerState state) {
         if (instance != null) {
             instance.stop();
         }
@@ -87,12 +110,48 @@ public class GameManager {
      * spawns.
      */
     public void setWavesFromGroups(List<Wave> newWaves) {
-        this.waves.clear();
-        if (newWaves != null) this.waves.addAll(newWaves);
+        simulation.setWavesFromGroups(newWaves);
         this.currentWaveProperty.set(0);
-        this.currentWaveIndex = 0;
-        this.waveInProgress = false;
-        this.timeUntilNextWave = 4; // initial grace before first group
+    }
+
+    /**
+     * Start recording player commands to a new replay log. Must be called
+     * after the waves are set and before the game loop starts; recording
+     * failures are reported and otherwise ignored so they never stop a game.
+     *
+     * @param mapName name of the map being played
+     * @param waves   waves of the level
+     */
+    public void startRecording(String mapName, List<Wave> waves) {
+        PlayerState state = simulation.getPlayerState();
+        try {
+            Path file = ReplayStorageManager.newReplayFile(mapName);
+            recorder = new ReplayRecorder(Files.newOutputStream(file), simulation.getSeed(), mapName,
+                    state.getGold(), state.getLives(), waves);
+        } catch (IOException e) {
+            e.printStackTrace();
+            recorder = null;
+        }
+    }
+
+    private void record(ReplayCommand command) {
+        if (recorder == null) return;
+        try {
+            recorder.record(command);
+        } catch (IOException e) {
+            e.printStackTrace();
+            closeRecorder();
+        }
+    }
+
+    private void closeRecorder() {
+        if (recorder == null) return;
+        try {
+            recorder.finish(simulation.getTickCount());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        recorder = null;
     }
 
     public static GameManager getInstance() {
@@ -102,37 +161,20 @@ public class GameManager {
         return instance;
     }
 
-    private GameManager(Canvas canvas, List<Entity> entities, GameModel model, PlayerState state) {
+    private GameManager(Canvas canvas, EntityRegistry entities, GameModel model, PlayerState state) {
         this.canvas = canvas;
         this.gc = canvas.getGraphicsContext2D();
-        this.entities = entities;
-        this.gameModel = model;
-        this.playerState = state;
-    }
-
-    /**
-     * Spawn all enemies described by an {@link EntityGroup}.
-     */
-    private void spawnGroup(EntityGroup cfg) {
-        AudioManager.playSoundEffect("/com/example/assets/audio/wave-starting.mp3");
-        int goblins = cfg.goblins;
-        int warriors = cfg.warriors;
-        for (int i = 0; i < goblins; i++) spawnGoblin();
-        for (int i = 0; i < warriors; i++) spawnWarrior();
-    }
-
-    /**
-     * Returns the closest {@link Goblin} to the provided entity or {@code null}
-     * if no goblins are present.
-     */
-    public Goblin nearestGoblin( AnimatedEntity entity )
-    {
-        return enemies.stream()
-                .filter(e -> e instanceof Goblin)
-                .map(e -> (Goblin) e)
-                .min(Comparator.comparing(g ->
-                        Math.pow(g.getX() - entity.getX(), 2) + Math.pow(g.getY() - entity.getY(), 2)))
-                .orElse(null);
+        this.simulation = new Simulation(model.getMap(), entities, state);
+        GameMap map = model.getMap();
+        int tile = GameScreenController.TILE_SIZE;
+        this.camera = new Camera(map.getWidth() * tile, map.getHeight() * tile);
+        this.simulation.addListener(event -> {
+            if (event.type == GameEvent.GameEventType.SOUND
+                    && event instanceof GameDataEvent<?> data
+                    && data.data instanceof String path) {
+                AudioManager.playSoundEffect(path);
+            }
+        });
     }
 
     /** Start the main game loop using an {@link AnimationTimer}. */
@@ -152,101 +194,102 @@ public class GameManager {
                     return;
                 }
 
-                // apply your multiplier here once
-                double dt = rawDt * gameSpeedMultiplier;
+                // apply your multiplier here once and run whole ticks
+                accumulator += Math.min(rawDt, MAX_FRAME_SECONDS) * gameSpeedMultiplier;
+                runTicks();
+                currentWaveProperty.set(simulation.getCurrentWave());
 
-                // pass the _scaled_ dt to every entity
-                for (Entity e : entities) {
-                    e.update(dt);
-                }
+                render();
+            }
+        };
+        gameLoop.start();
+    }
 
-                // handle enemy deaths or reaching the goal
-                for (AnimatedEntity enemy : new LinkedList<>(enemies)) {
-                    if (enemy.getHP() <= 0) {
-                        delayedRemove.add(enemy);
-                        enemies.remove(enemy);
-                        spawnGoldBag(enemy.getX(), enemy.getY());
-                    } else if (enemy.hasReachedGoal()) {
-                        delayedRemove.add(enemy);
-                        enemies.remove(enemy);
-                        playerState.loseLife();
-                    }
-                }
+    /**
+     * Draws the entities visible through the camera. Enemies and towers are
+     * looked up through the simulation's own per-tick enemy grid and tower
+     * tiles, so a frame visits the enemies and towers near the screen plus
+     * every projectile, effect and gold bag, rather than every entity.
+     */
+    private void render() {
+        gc.setTransform(1, 0, 0, 1, 0, 0);
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        camera.apply(gc);
+        if (DEBUG_PATH) drawDebugPaths();
 
-                entities.addAll(delayedAdd);
-                entities.removeAll(delayedRemove);
+        // draw between the last two ticks by how far into the next one we are
+        double alpha = Math.min(1.0, accumulator / Simulation.TICK_SECONDS);
+        simulation.forEachEntityInRect(camera.getMinX() - CULL_MARGIN, camera.getMinY() - CULL_MARGIN,
+                camera.getMaxX() + CULL_MARGIN, camera.getMaxY() + CULL_MARGIN,
+                e -> e.render(renderQueue, alpha));
+        renderQueue.flush(gc);
+    }
 
-                timeUntilNextWave -= dt;
-                if (timeUntilNextWave <= 0 && currentWaveIndex < waves.size()) {
-                    Wave wave = waves.get(currentWaveIndex);
-                    if (!waveInProgress) {
-                        currentWaveProperty.set(currentWaveIndex + 1);
-                        waveInProgress = true;
+    /**
+     * Runs as many whole ticks as the accumulated time allows, up to the
+     * per-frame budget, and applies the catch-up policy to what is left.
+     * Faster game speeds therefore run more ticks rather than longer ones.
+     * If a wave is due whose routes are still being planned, the simulation
+     * is held until a later frame instead of blocking this one.
+     */
+    private void runTicks() {
+        int ticks = 0;
+        while (accumulator >= Simulation.TICK_SECONDS && ticks < MAX_TICKS_PER_FRAME) {
+            if (simulation.isWaitingForPaths()) break;
+            simulation.tick();
+            accumulator -= Simulation.TICK_SECONDS;
+            ticks++;
+            if (recorder != null && simulation.getTickCount() % CHECKSUM_INTERVAL == 0) {
+                record(new ReplayCommand.Checksum(simulation.getTickCount(), simulation.stateHash()));
+            }
+        }
+        if (accumulator < Simulation.TICK_SECONDS) return;
 
-                        EntityGroup grp = wave.group;
-                        spawnGroup(grp);
-                        timeUntilNextWave = grp.delayAfter;
-                    }
-                }
+        double maxBacklog = catchUp == CatchUp.CARRY ? MAX_TICKS_PER_FRAME * Simulation.TICK_SECONDS : 0;
+        if (accumulator > maxBacklog) {
+            double excess = accumulator - maxBacklog;
+            droppedTicks += (long) (excess / Simulation.TICK_SECONDS);
+            accumulator = maxBacklog + excess % Simulation.TICK_SECONDS;
+        }
+    }
 
-                if (waveInProgress && enemies.isEmpty()) {
-                    currentWaveIndex++;
-                    waveInProgress = false;
-                    timeUntilNextWave = 5; // optional inter-wave delay
-                }
+    public void setCatchUp(CatchUp catchUp) {
+        this.catchUp = catchUp;
+    }
 
-                // render as before…
-                gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
-                if (DEBUG_PATH) drawDebugPaths();
-                for (Entity e : entities) e.render(gc);
-            }
-        };
-        gameLoop.start();
+    /** Returns how many ticks of simulation time were discarded because a frame ran over budget. */
+    public long getDroppedTicks() {
+        return droppedTicks;
     }
 
     public boolean isLevelCompleted() {
-        return currentWaveIndex >= waves.size() && enemies.isEmpty() && !waveInProgress;
+        return simulation.isLevelCompleted();
     }
 
     public void pause() {
         paused = true;
+        record(new ReplayCommand.Pause(simulation.getTickCount(), true));
     }
 
     public void resume() {
         paused = false;
+        record(new ReplayCommand.Pause(simulation.getTickCount(), false));
     }
 
-    /**
-     * Returns a list of all enemies within a given radius of the specified
-     * location. The returned list is a snapshot and modifications will not
-     * affect the underlying enemy collection.
-     */
-    public List<AnimatedEntity> enemiesWithinRadius(double x, double y, double radius) {
-        List<AnimatedEntity> hits = new LinkedList<>();
-        for (AnimatedEntity e : enemies) {
-            double dx = e.getX() - x;
-            double dy = e.getY() - y;
-            if (Math.hypot(dx, dy) <= radius) {
-                hits.add(e);
-            }
-        }
-        return hits;
-    }
-
-
     public void setGameSpeed(double multiplier) {
         if (multiplier > 0) {
             this.gameSpeedMultiplier = multiplier;
+            record(new ReplayCommand.Speed(simulation.getTickCount(), (float) multiplier));
         }
     }
 
 
     private void drawDebugPaths() {
         // Draw paths for debugging
-        int[][] grid = gameModel.getMap().getExpandedGrid();
-        Point start = PathFinder.findRandomSpawnPoint(grid);
-        Point goal = PathFinder.findCastlePoint(grid);
-        List<Point> path = PathFinder.findPath(grid, start, goal);
+        GameMap map = simulation.getMap();
+        Point start = PathFinder.findRandomSpawnPoint(map);
+        Point goal = map.getCastlePoint();
+        List<Point> path = PathFinder.findPath(map, start, goal);
 
         // Draw path
         gc.setStroke(javafx.scene.paint.Color.YELLOW);
@@ -264,185 +307,72 @@ public class GameManager {
         }
     }
 
-    /** Convenience overload spawning a default goblin. */
-    public void spawnGoblin() {
-        spawnGoblin(50, 100);
-    }
-
     /**
-     * Spawn a goblin enemy with the given speed and hit points.
-     * Pathfinding is performed each spawn so that goblins can appear from
-     * random map edges.
+     * Pass a click through the entity list allowing interactive objects to
+     * respond, e.g. gold bags. Returns whether anything consumed the event.
      */
-    public void spawnGoblin(double speed, int hp) {
-        int[][] grid = gameModel.getMap().getExpandedGrid();
-        Point start = PathFinder.findRandomSpawnPoint(grid);
-        Point goal = PathFinder.findCastlePoint(grid);
-        List<Point> path = PathFinder.findPath(grid, start, goal);
-
-        Goblin goblin = new Goblin(path, speed, hp);
-
-        this.entities.add(goblin);
-        enemies.add(goblin);
-    }
-
-    /** Spawn a default warrior enemy. */
-    public void spawnWarrior() {
-        spawnWarrior(40, 100);
+    public boolean handleClick(double x, double y) {
+        boolean consumed = simulation.handleClick(x, y);
+        if (consumed) {
+            record(new ReplayCommand.Click(simulation.getTickCount(), x, y));
+        }
+        return consumed;
     }
 
     /**
-     * Spawn a warrior enemy with custom speed and health.
+     * Build a level 1 tower on a free tile, paying for it from the player's
+     * gold.
+     *
+     * @return the new tower, or {@code null} if it could not be built
      */
-    public void spawnWarrior(double speed, int hp) {
-        int[][] grid = gameModel.getMap().getExpandedGrid();
-        Point start = PathFinder.findRandomSpawnPoint(grid);
-        Point goal = PathFinder.findCastlePoint(grid);
-        List<Point> path = PathFinder.findPath(grid, start, goal);
-
-        Warrior warrior = new Warrior(path, speed, hp);
-
-        this.entities.add(warrior);
-        enemies.add(warrior);
-    }
-
-    private void spawnWave(int[] cfg) {
-        int goblins = cfg.length > 0 ? cfg[0] : 0;
-        int warriors = cfg.length > 1 ? cfg[1] : 0;
-        for(int i=0;i<goblins;i++) spawnGoblin();
-        for(int i=0;i<warriors;i++) spawnWarrior();
-    }
-
-    public void attackEntity( Tower tower, AnimatedEntity e ) {
-        if (e != null)
-        {
-            if (tower instanceof ArcherTower) {
-                AudioManager.playRandomSoundEffect(
-                        "/com/example/assets/audio/archer-tower1.mp3",
-                        "/com/example/assets/audio/archer-tower2.mp3",
-                        "/com/example/assets/audio/archer-tower3.mp3",
-                        "/com/example/assets/audio/archer-tower4.mp3");
-            } else if (tower instanceof MageTower) {
-                AudioManager.playSoundEffect(
-                        "/com/example/assets/audio/spell-tower.mp3");
-            } else if (tower instanceof ArtilleryTower) {
-                AudioManager.playSoundEffect(
-                        "/com/example/assets/audio/artillery-tower.mp3");
-            }
-            Projectile p = new Projectile(
-                    tower,
-                    tower.getX() * GameScreenController.TILE_SIZE + 32,
-                    tower.getY() * GameScreenController.TILE_SIZE + 32,
-                    e);
-            this.delayedAdd.add(p);
+    public Tower buildTower(TileEnum type, int x, int y) {
+        Tower tower = simulation.buildTower(type, x, y);
+        if (tower != null) {
+            record(new ReplayCommand.Build(simulation.getTickCount(), type, x, y));
         }
-    }
-
-    /** Spawn a gold bag at the given location awarding a random amount of gold. */
-    private void spawnGoldBag(double x, double y) {
-        int amount = 2 + rng.nextInt(LEVEL1_ARCHER_COST / 2 - 1);
-        GoldBag bag = new GoldBag(x, y, amount);
-        this.delayedAdd.add(bag);
+        return tower;
     }
 
     /**
-     * Pass a click through the entity list allowing interactive objects to
-     * respond, e.g. gold bags. Returns whether anything consumed the event.
+     * Upgrade the tower on a tile, paying for it from the player's gold.
+     *
+     * @return the upgraded tower, or {@code null} if it could not be upgraded
      */
-    public boolean handleClick(double x, double y) {
-        for (int i = entities.size() - 1; i >= 0; i--) {
-            Entity e = entities.get(i);
-            if (e instanceof GoldBag bag && bag.contains(x, y)) {
-                bag.onClick();
-                return true;
-            }
+    public Tower upgradeTower(int x, int y) {
+        Tower tower = simulation.upgradeTower(x, y);
+        if (tower != null) {
+            record(new ReplayCommand.Upgrade(simulation.getTickCount(), x, y));
         }
-        return false;
-    }
-
-        /**
-         * Spawn a short-lived visual effect at the specified world location.
-         * The type of effect depends on which tower generated it.
-         */
-        public void spawnEffect( Tower parent, double x, double y )
-        {
-		if ( parent != null )
-		{
-			Image spriteSheet;
-            double scaleFactor = 0.75, frameDuration;
-            int frameSize, frameCount;
-			switch ( parent )
-			{
-				case ArcherTower _:
-					spriteSheet = ImageLoader.getImage("/com/example/assets/effects/Explosions2.png");
-                    scaleFactor = 0.25;
-                    frameDuration = 0.05;
-                    frameSize = 192;
-                    frameCount = 6;
-					break;
-				case MageTower _:
-					spriteSheet = ImageLoader.getImage("/com/example/assets/effects/Fire.png");
-                    frameSize = 128;
-                    scaleFactor = 0.5;
-                    frameDuration = 0.2;
-                    frameCount = 7;
-					break;
-				case ArtilleryTower _:
-					spriteSheet = ImageLoader.getImage("/com/example/assets/effects/Explosions2.png");
-                    frameSize = 192;
-                    frameCount = 6;
-                    frameDuration = 0.4;
-					break;
-				default:
-					throw new IllegalArgumentException();
-			}
-			Effect e = new Effect(spriteSheet, frameCount, frameSize, frameDuration, scaleFactor, x, y);
-			this.delayedAdd.add(e);
-		}
-	}
+        return tower;
+    }
 
     /**
-     * Finds the highest progress enemy within a tower's attack radius.
+     * Sell the tower on a tile for its build cost.
      *
-     * @param tower tower from which to measure distance
-     * @return enemy to target or {@code null} if none in range
+     * @return whether there was a tower to sell
      */
-    public AnimatedEntity nearestEnemy(Tower tower) {
-        double range = tower.getRange() * GameScreenController.TILE_SIZE;
-        double towerCenterX = (tower.getX() + 0.5) * GameScreenController.TILE_SIZE;
-        double towerCenterY = (tower.getY() + 0.5) * GameScreenController.TILE_SIZE;
-
-        return enemies.stream()
-                .filter(e -> {
-                    double dx = towerCenterX - e.getX();
-                    double dy = towerCenterY - e.getY();
-                    double distance = Math.sqrt(dx * dx + dy * dy);
-                    return distance <= range;
-                })
-                .max(Comparator.comparingDouble(AnimatedEntity::getPathProgress))
-                .orElse(null);
-    }
-
-
-    public void removeEntity( Entity p )
-    {
-        this.delayedRemove.add(p);
-    }
-
-    public void placeTower( Tower tower)
-    {
-        this.entities.add(tower);
-    }
-
-    public void removeTower( Tower tower )
-    {
-        this.entities.remove(tower);
+    public boolean sellTower(int x, int y) {
+        boolean sold = simulation.sellTower(x, y);
+        if (sold) {
+            record(new ReplayCommand.Sell(simulation.getTickCount(), x, y));
+        }
+        return sold;
     }
 
     public void stop() {
         if (gameLoop != null) {
             gameLoop.stop();
         }
+        closeRecorder();
+    }
+
+    /** Returns the camera the entities are drawn through. */
+    public Camera getCamera() {
+        return camera;
+    }
+
+    public Simulation getSimulation() {
+        return simulation;
     }
 
     public double getGameSpeedMultiplier() {
@@ -450,22 +380,22 @@ public class GameManager {
     }
 
     public int getGold() {
-        return playerState.getGold();
+        return simulation.getPlayerState().getGold();
     }
 
     public int getLives() {
-        return playerState.getLives();
+        return simulation.getPlayerState().getLives();
     }
 
     public int getMaxLives() {
-        return playerState.getMaxLives();
+        return simulation.getPlayerState().getMaxLives();
     }
 
     public PlayerState getPlayerState() {
-        return playerState;
+        return simulation.getPlayerState();
     }
 
     public IntegerProperty getCurrentWaveProperty() {
         return currentWaveProperty;
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,14 @@
 package com.example.game;
 
 import com.example.entity.AnimatedEntity;
-import com.example.entity.Entity;
+import com.example.entity.EntityRegistry;
 import com.example.entity.Tower;
 import com.example.map.GameMap;
 import com.example.map.TileView;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.List;
 
 /**
  * Represents the model for the game, managing the game map, entities, and event listeners.
@@ -19,7 +17,7 @@ public class GameModel {
 	private final GameMap map;
 	private final HashSet<GameEventListener> listeners;
 	public StringProperty debugMessage = new SimpleStringProperty();
-	private final List<Entity> entities = new ArrayList<>();
+	private final EntityRegistry entities = new EntityRegistry();
 
 	/**
 	 * Constructs a GameModel with the specified tile views.
@@ -50,11 +48,11 @@ public class GameModel {
 	}
 
 	/**
-	 * Retrieves the list of entities in the game.
+	 * Retrieves the registry of entities in the game.
 	 *
-	 * @return A list of Entity objects currently in the game.
+	 * @return The registry owning the entities currently in the game.
 	 */
-	public List<Entity> getEntities() {
+	public EntityRegistry getEntities() {
 		return entities;
 	}
 
@@ -64,6 +62,6 @@ public class GameModel {
 	 * @param entity The AnimatedEntity to be added to the game.
 	 */
 	public void addAnimatedEntity(AnimatedEntity entity) {
-		this.entities.add(entity);
+		this.entities.addNow(entity);
 	}
 }
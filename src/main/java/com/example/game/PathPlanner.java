@@ -0,0 +1,101 @@
+package com.example.game;
+
+import com.example.utils.PathPolyline;
+import com.example.utils.PathVariantCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Plans enemy routes off the render thread. A simulation asks for the
+ * routes of upcoming waves ahead of time and picks up the finished futures
+ * when the waves spawn, so starting a large wave costs no path work on the
+ * tick that starts it.
+ * <p>
+ * Each request carries its own seed, drawn from the session's path stream
+ * when the waves are set. The routes therefore depend only on that seed and
+ * not on which thread plans them or when, and a replay plans the same
+ * routes as the game it was recorded from.
+ * <p>
+ * Routes are drawn from a {@link PathVariantCache}, which is warmed up in the
+ * background when the planner is created.
+ */
+public class PathPlanner {
+    // Planning is short and CPU-bound; virtual threads keep idle sessions free
+    private static final ExecutorService SHARED = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("path-planner-", 0).factory());
+
+    private final PathVariantCache variants;
+    private final Executor executor;
+
+    /**
+     * Creates a planner running on the shared background executor.
+     *
+     * @param variants route variants of the map the enemies walk on
+     */
+    public PathPlanner(PathVariantCache variants) {
+        this(variants, SHARED);
+    }
+
+    /**
+     * Creates a planner running on the given executor and starts warming up
+     * its route variants there.
+     *
+     * @param variants route variants of the map the enemies walk on
+     * @param executor executor the planning runs on
+     */
+    public PathPlanner(PathVariantCache variants, Executor executor) {
+        this.variants = variants;
+        this.executor = executor;
+        executor.execute(variants::warmUp);
+    }
+
+    /**
+     * Requests routes for a group of enemies.
+     *
+     * @param count number of routes
+     * @param seed  seed of the spawn point and variant choices
+     * @return a future completing with the routes in spawn order, or with an
+     *         empty list if no spawn point reaches the castle
+     */
+    public CompletableFuture<List<PathPolyline>> plan(int count, long seed) {
+        return CompletableFuture.supplyAsync(() -> planNow(count, seed), executor);
+    }
+
+    /**
+     * Plans routes for a group of enemies on the calling thread.
+     *
+     * @param count number of routes
+     * @param seed  seed of the spawn point and variant choices
+     * @return the routes in spawn order, or an empty list if no spawn point
+     *         reaches the castle
+     */
+    public List<PathPolyline> planNow(int count, long seed) {
+        if (!variants.hasReachableSpawn()) return List.of();
+        Random rng = new Random(seed);
+        List<PathPolyline> paths = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            paths.add(plan(rng));
+        }
+        return paths;
+    }
+
+    /**
+     * Picks a random spawn point and one of its route variants.
+     *
+     * @param rng source of the spawn point and variant choice
+     * @return the route, or {@code null} if no spawn point reaches the castle
+     */
+    public PathPolyline plan(Random rng) {
+        return variants.get(rng);
+    }
+
+    public PathVariantCache getVariants() {
+        return variants;
+    }
+}
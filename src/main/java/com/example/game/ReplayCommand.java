@@ -0,0 +1,34 @@
+package com.example.game;
+
+import com.example.map.TileEnum;
+
+/**
+ * A player input captured for replay, stamped with the simulation tick it was
+ * applied before. Replaying the same commands at the same ticks from the same
+ * seed reproduces the session exactly.
+ */
+public sealed interface ReplayCommand {
+    /** Returns the tick before which the command was applied. */
+    long tick();
+
+    /** A tower was built on a free tile. */
+    record Build(long tick, TileEnum type, int x, int y) implements ReplayCommand {}
+
+    /** The tower on a tile was upgraded. */
+    record Upgrade(long tick, int x, int y) implements ReplayCommand {}
+
+    /** The tower on a tile was sold. */
+    record Sell(long tick, int x, int y) implements ReplayCommand {}
+
+    /** A click on the canvas that collected a gold bag. */
+    record Click(long tick, double x, double y) implements ReplayCommand {}
+
+    /** The game speed was changed. Kept as a marker; it does not affect the simulation. */
+    record Speed(long tick, float multiplier) implements ReplayCommand {}
+
+    /** The game was paused or resumed. Kept as a marker; it does not affect the simulation. */
+    record Pause(long tick, boolean paused) implements ReplayCommand {}
+
+    /** Hash of the simulation state at this tick, used to detect desyncs on playback. */
+    record Checksum(long tick, long hash) implements ReplayCommand {}
+}
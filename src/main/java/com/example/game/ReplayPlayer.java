@@ -0,0 +1,262 @@
+package com.example.game;
+
+import com.example.entity.EntityGroup;
+import com.example.entity.EntityRegistry;
+import com.example.map.GameMap;
+import com.example.map.TileEnum;
+import com.example.player.PlayerState;
+import com.example.storage_manager.MapStorageManager;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Plays replay logs written by {@link ReplayRecorder} headless and as fast as
+ * the simulation allows. Each tick is timed so that frame spikes seen in a
+ * live game can be found again, and recorded checksums are compared against
+ * the replayed state to find the first tick at which the two diverged.
+ * <p>
+ * Usage:
+ * <pre>
+ * ReplayPlayer replay.cotr [--slowest 10] [--stop-at 36000]
+ * </pre>
+ * {@code --stop-at} fast-forwards to the given tick and stops there, which is
+ * handy when attaching a profiler to a spike late in a long session.
+ */
+public class ReplayPlayer {
+    private static final int DEFAULT_SLOWEST = 10;
+
+    /** A parsed replay log. */
+    public record Replay(long seed,
+                         String mapName,
+                         int startingGold,
+                         int lives,
+                         List<Wave> waves,
+                         List<ReplayCommand> commands,
+                         long endTick) {}
+
+    /** Wall time spent on one simulation tick. */
+    public record TickTime(long tick, long nanos) {}
+
+    /** Outcome of playing a replay. */
+    public record Report(long ticks,
+                         int checksumsVerified,
+                         long firstDesyncTick,
+                         List<TickTime> slowestTicks,
+                         double wallMillis,
+                         boolean levelCompleted,
+                         boolean gameOver) {
+
+        /** Returns whether every recorded checksum matched. */
+        public boolean inSync() {
+            return firstDesyncTick < 0;
+        }
+    }
+
+    /**
+     * Reads a replay log from a file.
+     *
+     * @param file the log
+     * @return the parsed replay
+     * @throws IOException if the file cannot be read or is not a replay log
+     */
+    public static Replay read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            throw new IOException("Replay file not found: " + file.toAbsolutePath());
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads a replay log. A log without an end marker, e.g. from a game that
+     * crashed, ends at its last complete command.
+     *
+     * @param stream the log
+     * @return the parsed replay
+     * @throws IOException if the stream cannot be read or is not a replay log
+     */
+    public static Replay read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != ReplayRecorder.MAGIC) {
+            throw new IOException("Not a replay file");
+        }
+        int version = in.readUnsignedByte();
+        if (version != ReplayRecorder.VERSION) {
+            throw new IOException("Unsupported replay version: " + version);
+        }
+        long seed = in.readLong();
+        String mapName = in.readUTF();
+        int startingGold = in.readInt();
+        int lives = in.readInt();
+        int waveCount = in.readUnsignedShort();
+        List<Wave> waves = new ArrayList<>(waveCount);
+        for (int i = 0; i < waveCount; i++) {
+            waves.add(new Wave(new EntityGroup(in.readInt(), in.readInt(), in.readDouble())));
+        }
+
+        List<ReplayCommand> commands = new ArrayList<>();
+        long tick = 0;
+        try {
+            while (true) {
+                int op = in.readUnsignedByte();
+                long next = tick + readVarLong(in);
+                ReplayCommand command = switch (op) {
+                    case ReplayRecorder.OP_END -> null;
+                    case ReplayRecorder.OP_BUILD -> new ReplayCommand.Build(next,
+                            TileEnum.values()[in.readUnsignedByte()], in.readShort(), in.readShort());
+                    case ReplayRecorder.OP_UPGRADE -> new ReplayCommand.Upgrade(next, in.readShort(), in.readShort());
+                    case ReplayRecorder.OP_SELL -> new ReplayCommand.Sell(next, in.readShort(), in.readShort());
+                    case ReplayRecorder.OP_CLICK -> new ReplayCommand.Click(next, in.readDouble(), in.readDouble());
+                    case ReplayRecorder.OP_SPEED -> new ReplayCommand.Speed(next, in.readFloat());
+                    case ReplayRecorder.OP_PAUSE -> new ReplayCommand.Pause(next, in.readBoolean());
+                    case ReplayRecorder.OP_CHECKSUM -> new ReplayCommand.Checksum(next, in.readLong());
+                    default -> throw new IOException("Unknown replay command " + op + " after tick " + tick);
+                };
+                tick = next;
+                if (command == null) break;
+                commands.add(command);
+            }
+        } catch (EOFException e) {
+            // Truncated log; keep the commands read so far
+        }
+        return new Replay(seed, mapName, startingGold, lives, waves, commands, tick);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed tick delta");
+    }
+
+    /**
+     * Plays a replay on its recorded map, loaded from storage.
+     *
+     * @param replay the replay
+     * @return the playback report
+     * @throws IOException if the map cannot be loaded
+     */
+    public static Report play(Replay replay) throws IOException {
+        GameMap map = new GameMap(MapStorageManager.loadMapTypes(replay.mapName()));
+        return play(replay, map, replay.endTick(), DEFAULT_SLOWEST);
+    }
+
+    /**
+     * Plays a replay headless, applying each command before the tick it was
+     * recorded at.
+     *
+     * @param replay  the replay
+     * @param map     the map the replay was recorded on
+     * @param stopAt  tick to stop at; playback never runs past the end of the replay
+     * @param slowest number of slowest ticks to report
+     * @return the playback report
+     */
+    public static Report play(Replay replay, GameMap map, long stopAt, int slowest) {
+        PlayerState state = new PlayerState(replay.startingGold(), replay.lives());
+        Simulation sim = new Simulation(map, Simulation.buildFlowField(map), new EntityRegistry(), state, replay.seed());
+        sim.setWavesFromGroups(replay.waves());
+
+        long end = Math.min(stopAt, replay.endTick());
+        PriorityQueue<TickTime> slow = new PriorityQueue<>(Comparator.comparingLong(TickTime::nanos));
+        int verified = 0;
+        long desync = -1;
+        long start = System.nanoTime();
+
+        for (ReplayCommand command : replay.commands()) {
+            if (command.tick() > end) break;
+            runTo(sim, command.tick(), slow, slowest);
+            switch (command) {
+                case ReplayCommand.Build c -> sim.buildTower(c.type(), c.x(), c.y());
+                case ReplayCommand.Upgrade c -> sim.upgradeTower(c.x(), c.y());
+                case ReplayCommand.Sell c -> sim.sellTower(c.x(), c.y());
+                case ReplayCommand.Click c -> sim.handleClick(c.x(), c.y());
+                case ReplayCommand.Checksum c -> {
+                    if (sim.stateHash() == c.hash()) {
+                        verified++;
+                    } else if (desync < 0) {
+                        desync = c.tick();
+                    }
+                }
+                case ReplayCommand.Speed c -> { }
+                case ReplayCommand.Pause c -> { }
+            }
+        }
+        runTo(sim, end, slow, slowest);
+
+        List<TickTime> slowestTicks = new ArrayList<>(slow);
+        slowestTicks.sort(Comparator.comparingLong(TickTime::nanos).reversed());
+        return new Report(sim.getTickCount(), verified, desync, slowestTicks,
+                (System.nanoTime() - start) / 1e6, sim.isLevelCompleted(), sim.isGameOver());
+    }
+
+    private static void runTo(Simulation sim, long tick, PriorityQueue<TickTime> slow, int keep) {
+        while (sim.getTickCount() < tick) {
+            long t0 = System.nanoTime();
+            sim.tick();
+            long nanos = System.nanoTime() - t0;
+            if (keep <= 0) continue;
+            if (slow.size() < keep) {
+                slow.add(new TickTime(sim.getTickCount() - 1, nanos));
+            } else if (nanos > slow.peek().nanos()) {
+                slow.poll();
+                slow.add(new TickTime(sim.getTickCount() - 1, nanos));
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        try {
+            if (args.length == 0) {
+                throw new IllegalArgumentException("No replay file given");
+            }
+            int slowest = DEFAULT_SLOWEST;
+            long stopAt = Long.MAX_VALUE;
+            for (int i = 1; i < args.length; i++) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Bad option: " + args[i]);
+                }
+                switch (args[i]) {
+                    case "--slowest" -> slowest = Integer.parseInt(args[++i]);
+                    case "--stop-at" -> stopAt = Long.parseLong(args[++i]);
+                    default -> throw new IllegalArgumentException("Bad option: " + args[i]);
+                }
+            }
+
+            Replay replay = read(Path.of(args[0]));
+            GameMap map = new GameMap(MapStorageManager.loadMapTypes(replay.mapName()));
+            Report report = play(replay, map, stopAt, slowest);
+
+            System.out.printf("%s, seed %d: %d ticks (%.1f s of game time) in %.1f ms%n",
+                    replay.mapName(), replay.seed(), report.ticks(),
+                    report.ticks() * Simulation.TICK_SECONDS, report.wallMillis());
+            if (report.inSync()) {
+                System.out.printf("In sync, %d checksums verified%n", report.checksumsVerified());
+            } else {
+                System.out.printf("DESYNC at tick %d, %d checksums matched%n",
+                        report.firstDesyncTick(), report.checksumsVerified());
+            }
+            System.out.println("Slowest ticks:");
+            for (TickTime t : report.slowestTicks()) {
+                System.out.printf("  tick %8d  %8.3f ms%n", t.tick(), t.nanos() / 1e6);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Usage: ReplayPlayer replay.cotr [--slowest N] [--stop-at TICK]");
+            System.exit(1);
+        }
+    }
+}
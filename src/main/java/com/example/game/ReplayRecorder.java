@@ -0,0 +1,152 @@
+package com.example.game;
+
+import com.example.entity.EntityGroup;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes player commands to a compact binary replay log.
+ * <p>
+ * The log starts with a header holding everything needed to rebuild the
+ * session: the seed, map name, starting gold, lives and waves. Each command
+ * follows as a one byte opcode, the number of ticks since the previous
+ * command as an unsigned varint and a fixed payload, so a typical command
+ * takes four to seven bytes. The log ends with an end marker carrying the
+ * last tick; a log cut short by a crash can still be played up to its last
+ * complete command.
+ */
+public class ReplayRecorder implements Closeable {
+    static final int MAGIC = 0x434F5452; // "COTR"
+    static final int VERSION = 1;
+
+    static final int OP_END = 0;
+    static final int OP_BUILD = 1;
+    static final int OP_UPGRADE = 2;
+    static final int OP_SELL = 3;
+    static final int OP_CLICK = 4;
+    static final int OP_SPEED = 5;
+    static final int OP_PAUSE = 6;
+    static final int OP_CHECKSUM = 7;
+
+    private final DataOutputStream out;
+    private long lastTick = 0;
+    private boolean closed = false;
+
+    /**
+     * Starts a replay log and writes its header.
+     *
+     * @param stream       destination of the log; closed with the recorder
+     * @param seed         session seed
+     * @param mapName      name of the map being played
+     * @param startingGold gold the player starts with
+     * @param lives        lives the player starts with
+     * @param waves        waves of the level
+     * @throws IOException if the header cannot be written
+     */
+    public ReplayRecorder(OutputStream stream, long seed, String mapName, int startingGold, int lives,
+                          List<Wave> waves) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        out.writeUTF(mapName);
+        out.writeInt(startingGold);
+        out.writeInt(lives);
+        out.writeShort(waves.size());
+        for (Wave wave : waves) {
+            EntityGroup group = wave.group;
+            out.writeInt(group.goblins);
+            out.writeInt(group.warriors);
+            out.writeDouble(group.delayAfter);
+        }
+    }
+
+    /**
+     * Appends a command to the log. Commands must be recorded in tick order.
+     *
+     * @param command the command
+     * @throws IOException if writing fails
+     */
+    public void record(ReplayCommand command) throws IOException {
+        if (closed) {
+            throw new IOException("Replay already closed");
+        }
+        if (command.tick() < lastTick) {
+            throw new IllegalArgumentException("Command out of order at tick " + command.tick());
+        }
+        switch (command) {
+            case ReplayCommand.Build c -> {
+                writeOp(OP_BUILD, c.tick());
+                out.writeByte(c.type().ordinal());
+                out.writeShort(c.x());
+                out.writeShort(c.y());
+            }
+            case ReplayCommand.Upgrade c -> {
+                writeOp(OP_UPGRADE, c.tick());
+                out.writeShort(c.x());
+                out.writeShort(c.y());
+            }
+            case ReplayCommand.Sell c -> {
+                writeOp(OP_SELL, c.tick());
+                out.writeShort(c.x());
+                out.writeShort(c.y());
+            }
+            case ReplayCommand.Click c -> {
+                writeOp(OP_CLICK, c.tick());
+                out.writeDouble(c.x());
+                out.writeDouble(c.y());
+            }
+            case ReplayCommand.Speed c -> {
+                writeOp(OP_SPEED, c.tick());
+                out.writeFloat(c.multiplier());
+            }
+            case ReplayCommand.Pause c -> {
+                writeOp(OP_PAUSE, c.tick());
+                out.writeBoolean(c.paused());
+            }
+            case ReplayCommand.Checksum c -> {
+                writeOp(OP_CHECKSUM, c.tick());
+                out.writeLong(c.hash());
+            }
+        }
+    }
+
+    /**
+     * Writes the end marker and closes the log.
+     *
+     * @param endTick tick count of the simulation when recording stopped
+     * @throws IOException if writing fails
+     */
+    public void finish(long endTick) throws IOException {
+        if (closed) return;
+        writeOp(OP_END, Math.max(endTick, lastTick));
+        close();
+    }
+
+    /** Closes the log without an end marker if {@link #finish} was not called. */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        out.close();
+    }
+
+    private void writeOp(int op, long tick) throws IOException {
+        out.writeByte(op);
+        writeVarLong(tick - lastTick);
+        lastTick = tick;
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
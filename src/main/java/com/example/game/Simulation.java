@@ -0,0 +1,796 @@
+package com.example.game;
+
+import com.example.entity.*;
+import com.example.map.ExpandedGrid;
+import com.example.map.GameMap;
+import com.example.map.TileEnum;
+import com.example.map.TowerFactory;
+import com.example.player.PlayerState;
+import com.example.utils.FlowField;
+import com.example.utils.PathPolyline;
+import com.example.utils.PathVariantCache;
+import com.example.utils.Point;
+import com.example.utils.RandomStreams;
+import com.example.utils.SpatialGrid;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Headless game simulation. Owns the entity and enemy lists, wave state and
+ * the player's resources and advances them in fixed ticks of
+ * {@link #TICK_SECONDS}. Nothing in here touches the scene graph, a canvas or
+ * the audio system, so a level can be run on a machine without a display and
+ * far faster than real time. The FX screen drives it through
+ * {@link GameManager}, which only renders the resulting state.
+ * <p>
+ * Entities reach the simulation they belong to through {@link #current()},
+ * which is bound to the calling thread while the simulation is ticking. This
+ * keeps several simulations on different threads independent of each other.
+ */
+public class Simulation {
+    /** Length of one simulation tick in seconds. */
+    public static final double TICK_SECONDS = 1.0 / 60.0;
+
+    private static final int TILE_SIZE = 64;
+    private static final int LEVEL1_ARCHER_COST = 100;
+    private static final double INITIAL_WAVE_DELAY = 4;
+    private static final double INTER_WAVE_DELAY = 5;
+    private static final int POOL_CAPACITY = 256;
+    private static final double GOBLIN_SPEED = 50;
+    private static final double WARRIOR_SPEED = 40;
+    private static final int ENEMY_HP = 100;
+    // Waves whose routes are planned in the background before they spawn
+    private static final int WAVES_AHEAD = 2;
+
+    private static final ThreadLocal<Simulation> CURRENT = new ThreadLocal<>();
+
+    private final GameMap map;
+    private final PlayerState playerState;
+    private final EntityRegistry entities;
+    private final List<Wave> waves = new ArrayList<>();
+    private final List<GameEventListener> listeners = new ArrayList<>();
+    private final EnemyStore enemyStore = new EnemyStore();
+    private final EntityPool<Projectile> projectilePool = new EntityPool<>(Projectile::new, POOL_CAPACITY);
+    private final EntityPool<Effect> effectPool = new EntityPool<>(Effect::new, POOL_CAPACITY);
+    private final EntityPool<GoldBag> goldBagPool = new EntityPool<>(GoldBag::new, POOL_CAPACITY);
+    private final SpatialGrid<AnimatedEntity> enemyGrid;
+    private final Tower[] towerTiles;
+    // Projectiles, effects and gold bags, which are few and short-lived
+    private final List<Entity> shortLived = new ArrayList<>();
+    private FlowField flowField;
+    private final long variantSeed;
+    private PathPlanner planner;
+    private final List<CompletableFuture<List<PathPolyline>>> wavePaths = new ArrayList<>();
+    private long[] waveSeeds = new long[0];
+    private final RandomStreams random;
+    private boolean autoCollectGold = false;
+    private long goldDropped = 0;
+    private int currentWaveIndex = 0;
+    private int currentWave = 0;
+    private double timeUntilNextWave = INITIAL_WAVE_DELAY;
+    private boolean waveInProgress = false;
+    private long tickCount = 0;
+
+    /**
+     * Creates a simulation for the given map.
+     *
+     * @param map      map the enemies walk on
+     * @param entities registry that owns the live entities, shared with the model
+     * @param state    player state for this session
+     */
+    public Simulation(GameMap map, EntityRegistry entities, PlayerState state) {
+        this(map, buildFlowField(map), entities, state, RandomStreams.unseeded());
+    }
+
+    /**
+     * Creates a reproducible simulation. Runs on the same map can share one
+     * flow field, which is only ever read after it has been built.
+     *
+     * @param map       map the enemies walk on
+     * @param flowField flow field built for {@code map}
+     * @param entities  registry that owns the live entities
+     * @param state     player state for this session
+     * @param seed      session seed all random streams are derived from
+     */
+    public Simulation(GameMap map, FlowField flowField, EntityRegistry entities, PlayerState state, long seed) {
+        this(map, flowField, entities, state, new RandomStreams(seed));
+    }
+
+    private Simulation(GameMap map, FlowField flowField, EntityRegistry entities, PlayerState state, RandomStreams random) {
+        this.map = map;
+        this.entities = entities;
+        this.playerState = state;
+        this.random = random;
+        this.flowField = flowField;
+        this.variantSeed = random.path().nextLong();
+        this.planner = new PathPlanner(new PathVariantCache(map, flowField, variantSeed));
+        entities.setOnRemoved(this::recycle);
+        this.enemyGrid = new SpatialGrid<>(map.getWidth(), map.getHeight(), TILE_SIZE);
+        this.towerTiles = new Tower[map.getWidth() * map.getHeight()];
+    }
+
+    /**
+     * Solves the castle flow field for a map, seeded from the goal cells of
+     * every castle so that enemies head for the nearest one.
+     *
+     * @param map the map to solve
+     * @return the flow field leading to the map's castles
+     * @throws IllegalStateException if the map has no castle
+     */
+    public static FlowField buildFlowField(GameMap map) {
+        return FlowField.build(map.getExpandedGrid(), map.getGoalPoints());
+    }
+
+    /**
+     * Returns the simulation that is currently ticking on this thread.
+     *
+     * @return the bound simulation
+     * @throws IllegalStateException if no simulation is running on this thread
+     */
+    public static Simulation current() {
+        Simulation sim = CURRENT.get();
+        if (sim == null) {
+            throw new IllegalStateException("No simulation is running on this thread.");
+        }
+        return sim;
+    }
+
+    /**
+     * Registers a listener for events raised by the simulation, such as
+     * sound cues. Headless runs simply register none.
+     */
+    public void addListener(GameEventListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Replace the current wave list with the provided grouped configuration.
+     * Resets wave counters and sets an initial delay before the first group
+     * spawns. Each wave gets a seed from the path stream up front and the
+     * routes of the first waves start planning in the background.
+     */
+    public void setWavesFromGroups(List<Wave> newWaves) {
+        this.waves.clear();
+        if (newWaves != null) this.waves.addAll(newWaves);
+        this.currentWave = 0;
+        this.currentWaveIndex = 0;
+        this.waveInProgress = false;
+        this.timeUntilNextWave = INITIAL_WAVE_DELAY;
+
+        wavePaths.forEach(f -> f.cancel(false));
+        wavePaths.clear();
+        waveSeeds = new long[waves.size()];
+        for (int i = 0; i < waves.size(); i++) {
+            waveSeeds[i] = random.path().nextLong();
+            wavePaths.add(null);
+        }
+        for (int i = 0; i < WAVES_AHEAD; i++) requestWavePaths(i);
+    }
+
+    /** Starts planning the routes of a wave if it exists and is not planned yet. */
+    private void requestWavePaths(int index) {
+        if (index >= waves.size() || wavePaths.get(index) != null) return;
+        EntityGroup grp = waves.get(index).group;
+        wavePaths.set(index, planner.plan(grp.goblins + grp.warriors, waveSeeds[index]));
+    }
+
+    /**
+     * Returns whether the next tick would start a wave whose routes are still
+     * being planned. A tick run now would wait for the planner, so a caller
+     * that must not block can hold off ticking until this turns false.
+     */
+    public boolean isWaitingForPaths() {
+        if (waveInProgress || currentWaveIndex >= waves.size()
+                || timeUntilNextWave - TICK_SECONDS > 0) return false;
+        CompletableFuture<List<PathPolyline>> paths = wavePaths.get(currentWaveIndex);
+        return paths != null && !paths.isDone();
+    }
+
+    /**
+     * Advances the simulation by the given number of ticks.
+     *
+     * @param ticks number of fixed ticks to run
+     */
+    public void step(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            tick();
+        }
+    }
+
+    /**
+     * Runs the simulation until every wave has been cleared or the player has
+     * run out of lives.
+     *
+     * @param maxTicks upper bound on the number of ticks to run
+     * @return the number of ticks that were executed
+     */
+    public long runUntilComplete(long maxTicks) {
+        long start = tickCount;
+        while (tickCount - start < maxTicks && !isLevelCompleted() && !isGameOver()) {
+            tick();
+        }
+        return tickCount - start;
+    }
+
+    /** Advances the simulation by exactly one tick of {@link #TICK_SECONDS}. */
+    public void tick() {
+        Simulation previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            update(TICK_SECONDS);
+        } finally {
+            CURRENT.set(previous);
+        }
+        tickCount++;
+    }
+
+    private void update(double dt) {
+        entities.flush();
+        rebuildEnemyGrid();
+
+        for (int i = 0, n = entities.size(); i < n; i++) {
+            entities.get(i).update(dt);
+        }
+        // enemy movement and animation run as one pass over the store
+        enemyStore.update(dt);
+
+        // handle enemy deaths or reaching the goal; walking the store
+        // backwards keeps swap-removal from skipping an enemy
+        for (int i = enemyStore.size() - 1; i >= 0; i--) {
+            AnimatedEntity enemy = enemyStore.get(i);
+            if (enemy.getHP() <= 0) {
+                entities.remove(enemy);
+                enemyStore.remove(enemy);
+                spawnGoldBag(enemy.getX(), enemy.getY());
+            } else if (enemy.hasReachedGoal()) {
+                entities.remove(enemy);
+                enemyStore.remove(enemy);
+                playerState.loseLife();
+            }
+        }
+
+        entities.flush();
+
+        timeUntilNextWave -= dt;
+        if (timeUntilNextWave <= 0 && currentWaveIndex < waves.size()) {
+            Wave wave = waves.get(currentWaveIndex);
+            // A wave is held back while every spawn point is cut off from the castle
+            if (!waveInProgress && canSpawn(wave.group)) {
+                currentWave = currentWaveIndex + 1;
+                waveInProgress = true;
+
+                EntityGroup grp = wave.group;
+                spawnGroup(grp, takeWavePaths(currentWaveIndex));
+                timeUntilNextWave = grp.delayAfter;
+            }
+        }
+
+        if (waveInProgress && enemyStore.size() == 0) {
+            currentWaveIndex++;
+            waveInProgress = false;
+            timeUntilNextWave = INTER_WAVE_DELAY;
+        }
+    }
+
+    /** Returns whether a group has no enemies or somewhere to spawn them. */
+    private boolean canSpawn(EntityGroup grp) {
+        return grp.goblins + grp.warriors == 0 || planner.getVariants().hasReachableSpawn();
+    }
+
+    /**
+     * Re-buckets every live enemy by its current position. Range queries made
+     * during the tick see enemies where they stood at the start of it.
+     */
+    private void rebuildEnemyGrid() {
+        enemyGrid.clear();
+        for (int i = 0, n = enemyStore.size(); i < n; i++) {
+            AnimatedEntity e = enemyStore.get(i);
+            enemyGrid.add(e, e.getX(), e.getY());
+        }
+        enemyGrid.build();
+    }
+
+    /**
+     * Collects the planned routes of a wave, waiting for the planner only if
+     * it has fallen behind, and queues planning of the wave after the
+     * lookahead.
+     */
+    private List<PathPolyline> takeWavePaths(int index) {
+        requestWavePaths(index);
+        List<PathPolyline> paths = wavePaths.get(index).join();
+        wavePaths.set(index, CompletableFuture.completedFuture(List.of()));
+        requestWavePaths(index + WAVES_AHEAD);
+        return paths;
+    }
+
+    /**
+     * Spawn all enemies described by an {@link EntityGroup} on their planned
+     * routes, goblins first.
+     */
+    private void spawnGroup(EntityGroup cfg, List<PathPolyline> paths) {
+        playSound("/com/example/assets/audio/wave-starting.mp3");
+        int goblins = cfg.goblins;
+        int warriors = cfg.warriors;
+        for (int i = 0; i < goblins; i++) spawn(new Goblin(paths.get(i), GOBLIN_SPEED, ENEMY_HP));
+        for (int i = 0; i < warriors; i++) spawn(new Warrior(paths.get(goblins + i), WARRIOR_SPEED, ENEMY_HP));
+    }
+
+    private void spawn(AnimatedEntity enemy) {
+        entities.add(enemy);
+        enemyStore.add(enemy);
+    }
+
+    /** Convenience overload spawning a default goblin. */
+    public void spawnGoblin() {
+        spawnGoblin(GOBLIN_SPEED, ENEMY_HP);
+    }
+
+    /**
+     * Spawn a goblin enemy with the given speed and hit points.
+     * Goblins appear from a random map edge and follow the level's flow
+     * field to the castle. Nothing spawns if no edge reaches the castle.
+     */
+    public void spawnGoblin(double speed, int hp) {
+        PathPolyline path = planPath();
+        if (path != null) spawn(new Goblin(path, speed, hp));
+    }
+
+    /** Spawn a default warrior enemy. */
+    public void spawnWarrior() {
+        spawnWarrior(WARRIOR_SPEED, ENEMY_HP);
+    }
+
+    /**
+     * Spawn a warrior enemy with custom speed and health. Nothing spawns if
+     * no map edge reaches the castle.
+     */
+    public void spawnWarrior(double speed, int hp) {
+        PathPolyline path = planPath();
+        if (path != null) spawn(new Warrior(path, speed, hp));
+    }
+
+    /**
+     * Plans a route for a single enemy spawned outside of a wave, on the
+     * calling thread, or returns {@code null} if no spawn point reaches the
+     * castle.
+     */
+    private PathPolyline planPath() {
+        return planner.plan(random.path());
+    }
+
+    /**
+     * Blocks a map tile for enemies or opens it again with the map's own
+     * weights. A copy of the flow field is repaired incrementally, the routes of
+     * upcoming waves are planned again, and every live enemy is sent along a
+     * new route from where it stands in one pass. An enemy that is cut off
+     * from the castle keeps its current route. Spawn points that are cut off
+     * are no longer used, and waves are held back while no spawn point
+     * reaches the castle.
+     *
+     * @param tileX   tile column
+     * @param tileY   tile row
+     * @param blocked whether enemies may no longer walk the tile
+     * @return the number of enemies that were rerouted
+     */
+    public int setTileBlocked(int tileX, int tileY, boolean blocked) {
+        if (tileIndex(tileX, tileY) < 0) return 0;
+        // Repair a fresh copy every time: the field may be shared with other
+        // runs on the same map, and planning tasks that are already running
+        // keep reading the one they were given
+        flowField = flowField.copy();
+        ExpandedGrid base = map.getExpandedGrid();
+        for (int y = tileY * TILE_SIZE; y < (tileY + 1) * TILE_SIZE; y++) {
+            for (int x = tileX * TILE_SIZE; x < (tileX + 1) * TILE_SIZE; x++) {
+                flowField.setWeight(x, y, blocked ? 0 : base.get(x, y));
+            }
+        }
+        if (flowField.repair() == 0) return 0;
+
+        planner = new PathPlanner(new PathVariantCache(map, flowField, variantSeed));
+        for (int i = waveInProgress ? currentWaveIndex + 1 : currentWaveIndex; i < wavePaths.size(); i++) {
+            if (wavePaths.get(i) == null) continue;
+            wavePaths.get(i).cancel(false);
+            wavePaths.set(i, null);
+            requestWavePaths(i);
+        }
+        return rerouteEnemies(base);
+    }
+
+    /** Sends every live enemy along a fresh route from its current cell. */
+    private int rerouteEnemies(ExpandedGrid grid) {
+        int rerouted = 0;
+        for (int i = 0, n = enemyStore.size(); i < n; i++) {
+            AnimatedEntity enemy = enemyStore.get(i);
+            int x = Math.clamp(Math.round(enemy.getX()), 0, grid.getWidth() - 1);
+            int y = Math.clamp(Math.round(enemy.getY()), 0, grid.getHeight() - 1);
+            List<Point> route = flowField.walk(new Point(x, y), random.path());
+            if (route.isEmpty()) continue;
+            enemy.setPath(PathPolyline.of(route));
+            rerouted++;
+        }
+        return rerouted;
+    }
+
+    /**
+     * Returns the closest {@link Goblin} to the provided entity or {@code null}
+     * if no goblins are present.
+     */
+    public Goblin nearestGoblin(AnimatedEntity entity) {
+        return (Goblin) enemyGrid.nearest(entity.getX(), entity.getY(), e -> e instanceof Goblin);
+    }
+
+    /**
+     * Finds the enemy within a tower's attack radius that is closest to the
+     * end of its path. Ranking by the distance left rather than the distance
+     * walked keeps rerouted enemies, whose new path starts where they stand,
+     * ahead of enemies that have only just spawned.
+     *
+     * @param tower tower from which to measure distance
+     * @return enemy to target or {@code null} if none in range
+     */
+    public AnimatedEntity nearestEnemy(Tower tower) {
+        double range = tower.getRange() * TILE_SIZE;
+        double towerCenterX = (tower.getX() + 0.5) * TILE_SIZE;
+        double towerCenterY = (tower.getY() + 0.5) * TILE_SIZE;
+
+        return enemyGrid.maxWithin(towerCenterX, towerCenterY, range, e -> -e.getRemainingDistance());
+    }
+
+    /**
+     * Returns a list of all enemies within a given radius of the specified
+     * location. The returned list is a snapshot and modifications will not
+     * affect the underlying enemy collection.
+     */
+    public List<AnimatedEntity> enemiesWithinRadius(double x, double y, double radius) {
+        List<AnimatedEntity> hits = new ArrayList<>();
+        enemyGrid.forEachWithin(x, y, radius, hits::add);
+        return hits;
+    }
+
+    /**
+     * Visits every live entity whose position lies inside the given
+     * rectangle, for drawing. Enemies are looked up in the grid rebuilt at the
+     * start of each tick and towers by the tiles the rectangle covers, so
+     * neither is walked in full. Only projectiles, effects and gold bags are
+     * checked one by one.
+     */
+    public void forEachEntityInRect(double minX, double minY, double maxX, double maxY,
+                                    Consumer<? super Entity> action) {
+        enemyGrid.forEachInRect(minX, minY, maxX, maxY, e -> {
+            // the grid still holds enemies that died or escaped during the tick
+            if (entities.contains(e)) action.accept(e);
+        });
+
+        int minTx = Math.max(0, (int) Math.floor(minX / TILE_SIZE));
+        int minTy = Math.max(0, (int) Math.floor(minY / TILE_SIZE));
+        int maxTx = Math.min(map.getWidth() - 1, (int) Math.floor(maxX / TILE_SIZE));
+        int maxTy = Math.min(map.getHeight() - 1, (int) Math.floor(maxY / TILE_SIZE));
+        for (int ty = minTy; ty <= maxTy; ty++) {
+            for (int tx = minTx; tx <= maxTx; tx++) {
+                Tower tower = towerTiles[ty * map.getWidth() + tx];
+                if (tower != null) action.accept(tower);
+            }
+        }
+
+        for (int i = 0, n = shortLived.size(); i < n; i++) {
+            Entity e = shortLived.get(i);
+            double x = e.getX(), y = e.getY();
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY && entities.contains(e)) action.accept(e);
+        }
+    }
+
+    public void attackEntity(Tower tower, AnimatedEntity e) {
+        if (e != null) {
+            if (tower instanceof ArcherTower) {
+                playSound(
+                        "/com/example/assets/audio/archer-tower1.mp3",
+                        "/com/example/assets/audio/archer-tower2.mp3",
+                        "/com/example/assets/audio/archer-tower3.mp3",
+                        "/com/example/assets/audio/archer-tower4.mp3");
+            } else if (tower instanceof MageTower) {
+                playSound("/com/example/assets/audio/spell-tower.mp3");
+            } else if (tower instanceof ArtilleryTower) {
+                playSound("/com/example/assets/audio/artillery-tower.mp3");
+            }
+            Projectile p = projectilePool.acquire();
+            p.reset(
+                    tower,
+                    tower.getX() * TILE_SIZE + 32,
+                    tower.getY() * TILE_SIZE + 32,
+                    e);
+            entities.add(p);
+            shortLived.add(p);
+        }
+    }
+
+    /**
+     * Spawn a short-lived visual effect at the specified world location.
+     * The type of effect depends on which tower generated it.
+     */
+    public void spawnEffect(Tower parent, double x, double y) {
+        if (parent != null) {
+            String spriteSheet;
+            double scaleFactor = 0.75, frameDuration;
+            int frameSize, frameCount;
+            switch (parent) {
+                case ArcherTower _:
+                    spriteSheet = "/com/example/assets/effects/Explosions2.png";
+                    scaleFactor = 0.25;
+                    frameDuration = 0.05;
+                    frameSize = 192;
+                    frameCount = 6;
+                    break;
+                case MageTower _:
+                    spriteSheet = "/com/example/assets/effects/Fire.png";
+                    frameSize = 128;
+                    scaleFactor = 0.5;
+                    frameDuration = 0.2;
+                    frameCount = 7;
+                    break;
+                case ArtilleryTower _:
+                    spriteSheet = "/com/example/assets/effects/Explosions2.png";
+                    frameSize = 192;
+                    frameCount = 6;
+                    frameDuration = 0.4;
+                    break;
+                default:
+                    throw new IllegalArgumentException();
+            }
+            Effect e = effectPool.acquire();
+            e.reset(spriteSheet, frameCount, frameSize, frameDuration, scaleFactor, x, y);
+            entities.add(e);
+            shortLived.add(e);
+        }
+    }
+
+    /** Spawn a gold bag at the given location awarding a random amount of gold. */
+    private void spawnGoldBag(double x, double y) {
+        int amount = 2 + random.loot().nextInt(LEVEL1_ARCHER_COST / 2 - 1);
+        goldDropped += amount;
+        if (autoCollectGold) {
+            playerState.addGold(amount);
+            return;
+        }
+        GoldBag bag = goldBagPool.acquire();
+        bag.reset(x, y, amount);
+        entities.add(bag);
+        shortLived.add(bag);
+    }
+
+    /**
+     * Pass a click through the entity list allowing interactive objects to
+     * respond, e.g. gold bags. Returns whether anything consumed the event.
+     */
+    public boolean handleClick(double x, double y) {
+        Simulation previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            for (int i = entities.size() - 1; i >= 0; i--) {
+                Entity e = entities.get(i);
+                if (e instanceof GoldBag bag && bag.contains(x, y)) {
+                    bag.onClick();
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Hands projectiles, effects and gold bags back to their pools once the
+     * registry has let go of them.
+     */
+    private void recycle(Entity e) {
+        switch (e) {
+            case Projectile p -> {
+                shortLived.remove(p);
+                projectilePool.release(p);
+            }
+            case Effect fx -> {
+                shortLived.remove(fx);
+                effectPool.release(fx);
+            }
+            case GoldBag bag -> {
+                shortLived.remove(bag);
+                goldBagPool.release(bag);
+            }
+            default -> { }
+        }
+    }
+
+    /** Schedules an entity for removal at the end of the current tick. */
+    public void removeEntity(Entity p) {
+        entities.remove(p);
+    }
+
+    public void placeTower(Tower tower) {
+        int tile = tileIndex((int) tower.getX(), (int) tower.getY());
+        if (tile >= 0) {
+            if (towerTiles[tile] != null) entities.removeNow(towerTiles[tile]);
+            towerTiles[tile] = tower;
+        }
+        entities.addNow(tower);
+    }
+
+    public void removeTower(Tower tower) {
+        int tile = tileIndex((int) tower.getX(), (int) tower.getY());
+        if (tile >= 0 && towerTiles[tile] == tower) towerTiles[tile] = null;
+        entities.removeNow(tower);
+    }
+
+    private int tileIndex(int x, int y) {
+        if (x < 0 || y < 0 || x >= map.getWidth() || y >= map.getHeight()) return -1;
+        return y * map.getWidth() + x;
+    }
+
+    /** Returns the tower standing on the given tile, or {@code null}. */
+    public Tower getTowerAt(int x, int y) {
+        int tile = tileIndex(x, y);
+        return tile < 0 ? null : towerTiles[tile];
+    }
+
+    /**
+     * Builds a level 1 tower on a free tower tile and charges its cost.
+     *
+     * @return the new tower, or {@code null} if the tile is not a tower tile, is taken or the
+     *         player cannot afford it
+     */
+    public Tower buildTower(TileEnum type, int x, int y) {
+        int cost = TowerFactory.buildCost(type);
+        if (map.getTileType(x, y) != TileEnum.EMPTY_TOWER_TILE || getTowerAt(x, y) != null
+                || playerState.getGold() < cost) return null;
+        playerState.spendGold(cost);
+        Tower tower = TowerFactory.build(type, x, y, 1);
+        placeTower(tower);
+        return tower;
+    }
+
+    /**
+     * Replaces the tower on a tile with its next level and charges the
+     * upgrade cost.
+     *
+     * @return the upgraded tower, or {@code null} if there is no tower, it is
+     *         fully upgraded or the player cannot afford it
+     */
+    public Tower upgradeTower(int x, int y) {
+        Tower current = getTowerAt(x, y);
+        if (current == null || current.upgradeLevel >= TowerFactory.MAX_LEVEL
+                || playerState.getGold() < current.goldCost) return null;
+        playerState.spendGold(current.goldCost);
+        Tower upgraded = TowerFactory.build(TowerFactory.typeOf(current), x, y, current.upgradeLevel + 1);
+        placeTower(upgraded);
+        return upgraded;
+    }
+
+    /**
+     * Removes the tower on a tile and refunds its cost.
+     *
+     * @return whether there was a tower to sell
+     */
+    public boolean sellTower(int x, int y) {
+        Tower tower = getTowerAt(x, y);
+        if (tower == null) return false;
+        playerState.addGold(tower.goldCost);
+        removeTower(tower);
+        return true;
+    }
+
+    /**
+     * Hashes the state that has to match between a live game and its replay:
+     * time, lives, gold and every enemy's position and hit points.
+     */
+    public long stateHash() {
+        long h = tickCount;
+        h = h * 31 + playerState.getLives();
+        h = h * 31 + playerState.getGold();
+        h = h * 31 + entities.size();
+        for (int i = 0; i < enemyStore.size(); i++) {
+            AnimatedEntity e = enemyStore.get(i);
+            h = h * 31 + Double.doubleToLongBits(e.getX());
+            h = h * 31 + Double.doubleToLongBits(e.getY());
+            h = h * 31 + e.getHP();
+        }
+        return h;
+    }
+
+    /**
+     * Raises a sound cue. When several paths are given one of them is picked
+     * from the cosmetic stream, which no game state depends on.
+     */
+    private void playSound(String... paths) {
+        String path = paths.length == 1 ? paths[0] : paths[random.cosmetic().nextInt(paths.length)];
+        if (listeners.isEmpty()) return;
+        GameDataEvent<String> event = new GameDataEvent<>(GameEvent.GameEventType.SOUND, path);
+        for (GameEventListener l : listeners) {
+            l.handle(event);
+        }
+    }
+
+    public boolean isLevelCompleted() {
+        return currentWaveIndex >= waves.size() && enemyStore.size() == 0 && !waveInProgress;
+    }
+
+    public boolean isGameOver() {
+        return playerState.getLives() <= 0;
+    }
+
+    /** Returns the one-based number of the wave that has most recently started. */
+    public int getCurrentWave() {
+        return currentWave;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /** Returns the simulated time in seconds since the simulation was created. */
+    public double getElapsedSeconds() {
+        return tickCount * TICK_SECONDS;
+    }
+
+    public EntityRegistry getEntities() {
+        return entities;
+    }
+
+    /** Returns a snapshot of the live enemies. */
+    public List<AnimatedEntity> getEnemies() {
+        List<AnimatedEntity> enemies = new ArrayList<>(enemyStore.size());
+        for (int i = 0; i < enemyStore.size(); i++) {
+            enemies.add(enemyStore.get(i));
+        }
+        return enemies;
+    }
+
+    /**
+     * Makes dropped gold go straight to the player instead of spawning bags
+     * that have to be clicked. Meant for headless runs with nobody to click.
+     */
+    public void setAutoCollectGold(boolean autoCollectGold) {
+        this.autoCollectGold = autoCollectGold;
+    }
+
+    /** Returns the total gold dropped by killed enemies, collected or not. */
+    public long getGoldDropped() {
+        return goldDropped;
+    }
+
+    /** Returns this session's random streams. */
+    public RandomStreams getRandom() {
+        return random;
+    }
+
+    /** Returns the seed that reproduces this session. */
+    public long getSeed() {
+        return random.getSeed();
+    }
+
+    public EntityPool<Projectile> getProjectilePool() {
+        return projectilePool;
+    }
+
+    public EntityPool<Effect> getEffectPool() {
+        return effectPool;
+    }
+
+    public EntityPool<GoldBag> getGoldBagPool() {
+        return goldBagPool;
+    }
+
+    public GameMap getMap() {
+        return map;
+    }
+
+    /** Returns the flow field enemies are currently routed with. */
+    public FlowField getFlowField() {
+        return flowField;
+    }
+
+    public PlayerState getPlayerState() {
+        return playerState;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.map;
+
+import java.util.Arrays;
+
+/**
+ * Per-pixel path weights of a map, stored as one byte per cell in a single
+ * flat array. The weights only take a handful of small values, so this holds
+ * the same information as an {@code int[][]} in a quarter of the memory and
+ * without an array header per row. Cells are addressed either by their x and
+ * y coordinates or by their flat index {@code y * width + x}.
+ */
+public class ExpandedGrid {
+	private final int width, height;
+	private final byte[] weights;
+
+	/**
+	 * Constructs a grid with every weight set to zero.
+	 *
+	 * @param width  The width in cells.
+	 * @param height The height in cells.
+	 */
+	public ExpandedGrid(int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.weights = new byte[width * height];
+	}
+
+	/**
+	 * Retrieves the width of the grid in cells.
+	 *
+	 * @return The width in cells.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Retrieves the height of the grid in cells.
+	 *
+	 * @return The height in cells.
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Checks if the given coordinates lie inside the grid.
+	 *
+	 * @param x The cell column.
+	 * @param y The cell row.
+	 * @return True if the cell is inside the grid, false otherwise.
+	 */
+	public boolean contains(int x, int y) {
+		return x >= 0 && y >= 0 && x < width && y < height;
+	}
+
+	/**
+	 * Gets the flat index of a cell.
+	 *
+	 * @param x The cell column.
+	 * @param y The cell row.
+	 * @return The flat index of the cell.
+	 */
+	public int index(int x, int y) {
+		return y * width + x;
+	}
+
+	/**
+	 * Gets the weight of a cell. Positive weights are walkable.
+	 *
+	 * @param x The cell column.
+	 * @param y The cell row.
+	 * @return The weight of the cell.
+	 */
+	public int get(int x, int y) {
+		return weights[y * width + x];
+	}
+
+	/**
+	 * Gets the weight of a cell by its flat index.
+	 *
+	 * @param index The flat index of the cell.
+	 * @return The weight of the cell.
+	 */
+	public int get(int index) {
+		return weights[index];
+	}
+
+	/**
+	 * Creates a copy of the grid that can be changed independently.
+	 *
+	 * @return The copy.
+	 */
+	public ExpandedGrid copy() {
+		ExpandedGrid copy = new ExpandedGrid(width, height);
+		System.arraycopy(weights, 0, copy.weights, 0, weights.length);
+		return copy;
+	}
+
+	/**
+	 * Sets the weight of a cell by its flat index. The grid of a
+	 * {@link GameMap} is shared by everything playing on it, so only grids
+	 * obtained from {@link #copy()} should be changed this way.
+	 *
+	 * @param index  The flat index of the cell.
+	 * @param weight The weight, between -128 and 127.
+	 */
+	public void set(int index, int weight) {
+		weights[index] = (byte) weight;
+	}
+
+	/**
+	 * Sets the weight of a cell.
+	 *
+	 * @param x      The cell column.
+	 * @param y      The cell row.
+	 * @param weight The weight, between -128 and 127.
+	 */
+	void set(int x, int y, int weight) {
+		weights[y * width + x] = (byte) weight;
+	}
+
+	/**
+	 * Sets the weight of a run of cells in one row.
+	 *
+	 * @param x      The first cell column.
+	 * @param y      The cell row.
+	 * @param length The number of cells.
+	 * @param weight The weight, between -128 and 127.
+	 */
+	void fillRow(int x, int y, int length, int weight) {
+		int from = y * width + x;
+		Arrays.fill(weights, from, from + length, (byte) weight);
+	}
+}
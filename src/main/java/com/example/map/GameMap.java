@@ -1,121 +1,262 @@
 package com.example.map;
 
+import com.example.utils.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Represents a game map used for pathfinding, including an expanded grid
  * that marks traversable areas, spawn points, obstacles, and castle goals.
+ * The spawn and goal cells and the connected road components are indexed
+ * once when the map is built, so looking them up never scans the grid.
  */
 public class GameMap {
 	private final int width, height;
-	private int[][] expandedGrid;
+	private final ExpandedGrid expandedGrid;
+	private final TileEnum[][] tileTypes;
+	private final List<Point> spawnPoints;
+	private final int[] goalCells;
+	private final int castleCount;
+	private final int[] roadComponents;
+	private final int roadComponentCount;
 
 	private static final int TILE_SIZE = 64;
 	private static final int PEAK_WEIGHT  = TILE_SIZE / 2;
 	private static final int SPAWN_WEIGHT = PEAK_WEIGHT * 2;
 	private static final int GOAL_WEIGHT  = PEAK_WEIGHT * 3;
 
+	private static final int[] TILE_DX = { 0, 1, 0, -1 };
+	private static final int[] TILE_DY = { -1, 0, 1, 0 };
+
 	/**
 	 * Constructs a GameMap instance and initializes the expanded grid based on the provided tile views.
 	 * 
 	 * @param tileViews A 2D array of TileView objects representing the game map layout.
 	 */
 	public GameMap(TileView[][] tileViews) {
-		this.height = tileViews.length;
-		this.width  = tileViews[0].length;
+		this(typesOf(tileViews));
+	}
+
+	/**
+	 * Constructs a GameMap instance from plain tile types. This does not need
+	 * any view objects and can therefore be used by headless simulations.
+	 *
+	 * @param tileTypes A 2D array of tile types, indexed by row then column.
+	 */
+	public GameMap(TileEnum[][] tileTypes) {
+		this.tileTypes = tileTypes;
+		this.height = tileTypes.length;
+		this.width  = tileTypes[0].length;
 		int pixelW = width * TILE_SIZE;
 		int pixelH = height * TILE_SIZE;
-		expandedGrid = new int[pixelH][pixelW];
+		expandedGrid = new ExpandedGrid(pixelW, pixelH);
 
 		for (int ty = 0; ty < height; ty++) {
 			for (int tx = 0; tx < width; tx++) {
-				TileEnum type = tileViews[ty][tx].getType();
+				TileEnum type = tileTypes[ty][tx];
 				int originX = tx * TILE_SIZE;
 				int originY = ty * TILE_SIZE;
 
 				if (TileEnum.PATH_TILES.contains(type)) {
 					int mid = TILE_SIZE / 2;
 
-					for (int dx = 0; dx < TILE_SIZE; dx++) {
-						expandedGrid[originY + mid][originX + dx] = PEAK_WEIGHT;
+					for (int dy = 0; dy < TILE_SIZE; dy++) {
+						expandedGrid.fillRow(originX, originY + dy, TILE_SIZE, 1);
 					}
 
+					expandedGrid.fillRow(originX, originY + mid, TILE_SIZE, PEAK_WEIGHT);
+
 					for (int dy = 0; dy < TILE_SIZE; dy++) {
-						expandedGrid[originY + dy][originX + mid] = PEAK_WEIGHT;
+						expandedGrid.set(originX + mid, originY + dy, PEAK_WEIGHT);
 					}
 
 					for (int d = 0; d < TILE_SIZE; d++) {
-						expandedGrid[originY + d][originX + d] = PEAK_WEIGHT;
-						expandedGrid[originY + d][originX + (TILE_SIZE - 1 - d)] = PEAK_WEIGHT;
-					}
-
-					for (int dy = 0; dy < TILE_SIZE; dy++) {
-						for (int dx = 0; dx < TILE_SIZE; dx++) {
-							int y = originY + dy, x = originX + dx;
-							if (expandedGrid[y][x] == 0) {
-								expandedGrid[y][x] = 1;
-							}
-						}
+						expandedGrid.set(originX + d, originY + d, PEAK_WEIGHT);
+						expandedGrid.set(originX + (TILE_SIZE - 1 - d), originY + d, PEAK_WEIGHT);
 					}
 				} else if (TileEnum.CASTLE_TILES.contains(type)) {
 					for (int dy = 0; dy < TILE_SIZE; dy++) {
-						for (int dx = 0; dx < TILE_SIZE; dx++) {
-							int y = originY + dy;
-							int x = originX + dx;
-							if (dy < TILE_SIZE / 2) {
-								expandedGrid[y][x] = -1;
-							} else {
-								expandedGrid[y][x] = GOAL_WEIGHT;
-							}
-						}
+						expandedGrid.fillRow(originX, originY + dy, TILE_SIZE, dy < TILE_SIZE / 2 ? -1 : GOAL_WEIGHT);
 					}
 				} else {
 					for (int dy = 0; dy < TILE_SIZE; dy++) {
-						for (int dx = 0; dx < TILE_SIZE; dx++) {
-							expandedGrid[originY + dy][originX + dx] = -1;
-						}
+						expandedGrid.fillRow(originX, originY + dy, TILE_SIZE, -1);
 					}
 				}
 			}
 		}
 
 		for (int x = 0; x < pixelW; x++) {
-			if (expandedGrid[0][x] > 0) {
-				expandedGrid[0][x] = SPAWN_WEIGHT;
-			};
-			if (expandedGrid[pixelH - 1][x] > 0) {
-				expandedGrid[pixelH - 1][x] = SPAWN_WEIGHT;
-			};
+			if (expandedGrid.get(x, 0) > 0) {
+				expandedGrid.set(x, 0, SPAWN_WEIGHT);
+			}
+			if (expandedGrid.get(x, pixelH - 1) > 0) {
+				expandedGrid.set(x, pixelH - 1, SPAWN_WEIGHT);
+			}
 		}
 		for (int y = 0; y < pixelH; y++) {
-			if (expandedGrid[y][0] > 0) {
-				expandedGrid[y][0] = SPAWN_WEIGHT;
-			};
-			if (expandedGrid[y][pixelW - 1] > 0) {
-				expandedGrid[y][pixelW - 1] = SPAWN_WEIGHT;
-			};
+			if (expandedGrid.get(0, y) > 0) {
+				expandedGrid.set(0, y, SPAWN_WEIGHT);
+			}
+			if (expandedGrid.get(pixelW - 1, y) > 0) {
+				expandedGrid.set(pixelW - 1, y, SPAWN_WEIGHT);
+			}
 		}
 
-		int minCx = width, minCy = height, maxCx = -1, maxCy = -1;
-		for (int ty = 0; ty < height; ty++) {
-			for (int tx = 0; tx < width; tx++) {
-				if (TileEnum.CASTLE_TILES.contains(tileViews[ty][tx].getType())) {
-					minCx = Math.min(minCx, tx);
-					maxCx = Math.max(maxCx, tx);
-					minCy = Math.min(minCy, ty);
-					maxCy = Math.max(maxCy, ty);
+		castleCount = fillCastles();
+		goalCells = collectGoalCells();
+
+		spawnPoints = collectSpawnPoints();
+		roadComponents = new int[width * height];
+		roadComponentCount = labelRoadComponents();
+	}
+
+	/**
+	 * Collects the walkable cells on the map edge marked with the spawn
+	 * weight, top and bottom edge first, then left and right.
+	 *
+	 * @return The spawn points, in a fixed order.
+	 */
+	private List<Point> collectSpawnPoints() {
+		int pixelW = expandedGrid.getWidth(), pixelH = expandedGrid.getHeight();
+		List<Point> points = new ArrayList<>();
+		for (int x = 0; x < pixelW; x++) {
+			if (expandedGrid.get(x, 0) == SPAWN_WEIGHT) points.add(new Point(x, 0));
+			if (expandedGrid.get(x, pixelH - 1) == SPAWN_WEIGHT) points.add(new Point(x, pixelH - 1));
+		}
+		for (int y = 0; y < pixelH; y++) {
+			if (expandedGrid.get(0, y) == SPAWN_WEIGHT) points.add(new Point(0, y));
+			if (expandedGrid.get(pixelW - 1, y) == SPAWN_WEIGHT) points.add(new Point(pixelW - 1, y));
+		}
+		return List.copyOf(points);
+	}
+
+	/**
+	 * Marks the lower half of every castle as goal. Castle tiles that touch
+	 * along an edge form one castle; each castle's bounding box is filled on
+	 * its own, so castles apart from each other do not join up.
+	 *
+	 * @return The number of castles.
+	 */
+	private int fillCastles() {
+		boolean[] seen = new boolean[width * height];
+		int[] queue = new int[width * height];
+		int count = 0;
+		for (int start = 0; start < seen.length; start++) {
+			if (seen[start] || !isCastle(start % width, start / width)) continue;
+			int minX = width, minY = height, maxX = -1, maxY = -1;
+			int head = 0, tail = 0;
+			seen[start] = true;
+			queue[tail++] = start;
+			while (head < tail) {
+				int tile = queue[head++];
+				int tx = tile % width, ty = tile / width;
+				minX = Math.min(minX, tx);
+				maxX = Math.max(maxX, tx);
+				minY = Math.min(minY, ty);
+				maxY = Math.max(maxY, ty);
+				for (int i = 0; i < 4; i++) {
+					int nx = tx + TILE_DX[i], ny = ty + TILE_DY[i];
+					if (!isCastle(nx, ny)) continue;
+					int n = ny * width + nx;
+					if (seen[n]) continue;
+					seen[n] = true;
+					queue[tail++] = n;
 				}
 			}
-		}
-		if (minCx <= maxCx && minCy <= maxCy) {
-			int castleX = minCx * TILE_SIZE;
-			int castleY = minCy * TILE_SIZE;
-			int castleW = (maxCx - minCx + 1) * TILE_SIZE;
-			int castleH = (maxCy - minCy + 1) * TILE_SIZE;
+			int castleX = minX * TILE_SIZE;
+			int castleY = minY * TILE_SIZE;
+			int castleW = (maxX - minX + 1) * TILE_SIZE;
+			int castleH = (maxY - minY + 1) * TILE_SIZE;
 			for (int dy = castleH/2; dy < castleH; dy++) {
-				for (int dx = 0; dx < castleW; dx++) {
-					expandedGrid[castleY + dy][castleX + dx] = GOAL_WEIGHT;
+				expandedGrid.fillRow(castleX, castleY + dy, castleW, GOAL_WEIGHT);
+			}
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Collects the goal cells of every castle in row-major order.
+	 *
+	 * @return The flat indices of the goal cells.
+	 */
+	private int[] collectGoalCells() {
+		int[] cells = new int[64];
+		int count = 0;
+		for (int cell = 0, n = expandedGrid.getWidth() * expandedGrid.getHeight(); cell < n; cell++) {
+			if (expandedGrid.get(cell) != GOAL_WEIGHT) continue;
+			if (count == cells.length) cells = Arrays.copyOf(cells, count * 2);
+			cells[count++] = cell;
+		}
+		return Arrays.copyOf(cells, count);
+	}
+
+	private boolean isCastle(int x, int y) {
+		TileEnum type = tileAt(x, y);
+		return type != null && TileEnum.CASTLE_TILES.contains(type);
+	}
+
+	/**
+	 * Labels every group of road and castle tiles that touch along an edge
+	 * with its own component number. Other tiles are labelled -1.
+	 *
+	 * @return The number of components.
+	 */
+	private int labelRoadComponents() {
+		Arrays.fill(roadComponents, -1);
+		int[] queue = new int[width * height];
+		int count = 0;
+		for (int start = 0; start < roadComponents.length; start++) {
+			if (roadComponents[start] >= 0 || !isRoadOrCastle(start % width, start / width)) continue;
+			int head = 0, tail = 0;
+			roadComponents[start] = count;
+			queue[tail++] = start;
+			while (head < tail) {
+				int tile = queue[head++];
+				int tx = tile % width, ty = tile / width;
+				for (int i = 0; i < 4; i++) {
+					int nx = tx + TILE_DX[i], ny = ty + TILE_DY[i];
+					if (!isRoadOrCastle(nx, ny)) continue;
+					int n = ny * width + nx;
+					if (roadComponents[n] >= 0) continue;
+					roadComponents[n] = count;
+					queue[tail++] = n;
 				}
 			}
+			count++;
+		}
+		return count;
+	}
+
+	private boolean isRoadOrCastle(int x, int y) {
+		TileEnum type = tileAt(x, y);
+		return type != null && (TileEnum.PATH_TILES.contains(type) || TileEnum.CASTLE_TILES.contains(type));
+	}
+
+	// Not overridable, so the constructor can use it before a subclass is set up
+	private TileEnum tileAt(int x, int y) {
+		if (x < 0 || y < 0 || x >= width || y >= height) return null;
+		return tileTypes[y][x];
+	}
+
+	/**
+	 * Extracts the tile types from a grid of tile views.
+	 *
+	 * @param tileViews The tile views to read.
+	 * @return The tile types, indexed by row then column.
+	 */
+	private static TileEnum[][] typesOf(TileView[][] tileViews) {
+		TileEnum[][] types = new TileEnum[tileViews.length][];
+		for (int y = 0; y < tileViews.length; y++) {
+			types[y] = new TileEnum[tileViews[y].length];
+			for (int x = 0; x < tileViews[y].length; x++) {
+				types[y][x] = tileViews[y][x].getType();
+			}
 		}
+		return types;
 	}
 
 	/**
@@ -137,18 +278,112 @@ public class GameMap {
 	}
 
 	/**
-	 * Prints the expanded grid weights to the standard output for debugging purposes.
+	 * Retrieves the type of the tile at the given tile coordinates.
+	 *
+	 * @param x The tile column.
+	 * @param y The tile row.
+	 * @return The tile type, or null if the coordinates are outside the map.
 	 */
-	public void printExpandedGrid() {
-		if (expandedGrid == null) {
-			System.out.println("Expanded grid is not initialized.");
-			return;
+	public TileEnum getTileType(int x, int y) {
+		return tileAt(x, y);
+	}
+
+	/**
+	 * Retrieves the spawn points on the map edge.
+	 *
+	 * @return An unmodifiable list of spawn points, in expanded grid cells.
+	 */
+	public List<Point> getSpawnPoints() {
+		return spawnPoints;
+	}
+
+	/**
+	 * Retrieves the number of castles. Castle tiles that touch along an edge
+	 * count as one castle.
+	 *
+	 * @return The number of castles.
+	 */
+	public int getCastleCount() {
+		return castleCount;
+	}
+
+	/**
+	 * Retrieves the number of goal cells over all castles.
+	 *
+	 * @return The number of goal cells.
+	 */
+	public int getGoalCount() {
+		return goalCells.length;
+	}
+
+	/**
+	 * Retrieves a goal cell by its position in row-major order.
+	 *
+	 * @param i The position of the goal cell, from 0 to {@link #getGoalCount()} - 1.
+	 * @return The goal cell, in expanded grid cells.
+	 */
+	public Point getGoalPoint(int i) {
+		int cell = goalCells[i];
+		return new Point(cell % expandedGrid.getWidth(), cell / expandedGrid.getWidth());
+	}
+
+	/**
+	 * Retrieves every goal cell of every castle in row-major order.
+	 *
+	 * @return A new list of the goal cells, in expanded grid cells.
+	 */
+	public List<Point> getGoalPoints() {
+		List<Point> points = new ArrayList<>(goalCells.length);
+		for (int i = 0; i < goalCells.length; i++) {
+			points.add(getGoalPoint(i));
 		}
+		return points;
+	}
+
+	/**
+	 * Retrieves a single castle point: the first goal cell in row-major
+	 * order. Enemies walk to whichever castle is nearest; this point is for
+	 * the searches that need a single target.
+	 *
+	 * @return The castle point, in expanded grid cells.
+	 * @throws IllegalStateException If the map has no castle.
+	 */
+	public Point getCastlePoint() {
+		if (goalCells.length == 0) throw new IllegalStateException("No castle point found");
+		return getGoalPoint(0);
+	}
 
-		for (int y = 0; y < expandedGrid.length; y++) {
+	/**
+	 * Retrieves the road component of a tile. Road and castle tiles that touch
+	 * along an edge share a component; enemies can only walk within one.
+	 *
+	 * @param x The tile column.
+	 * @param y The tile row.
+	 * @return The component number, or -1 if the tile is not a road or castle
+	 *         tile or is outside the map.
+	 */
+	public int getRoadComponent(int x, int y) {
+		if (x < 0 || y < 0 || x >= width || y >= height) return -1;
+		return roadComponents[y * width + x];
+	}
+
+	/**
+	 * Retrieves the number of separate road components on the map.
+	 *
+	 * @return The number of road components.
+	 */
+	public int getRoadComponentCount() {
+		return roadComponentCount;
+	}
+
+	/**
+	 * Prints the expanded grid weights to the standard output for debugging purposes.
+	 */
+	public void printExpandedGrid() {
+		for (int y = 0; y < expandedGrid.getHeight(); y++) {
 			StringBuilder row = new StringBuilder();
-			for (int x = 0; x < expandedGrid[0].length; x++) {
-				row.append(String.format("%2d ", expandedGrid[y][x]));
+			for (int x = 0; x < expandedGrid.getWidth(); x++) {
+				row.append(String.format("%2d ", expandedGrid.get(x, y)));
 			}
 			System.out.println(row);
 		}
@@ -157,9 +392,9 @@ public class GameMap {
 	/**
 	 * Retrieves the expanded grid used for pathfinding.
 	 * 
-	 * @return A 2D array representing the expanded grid with weights for pathfinding.
+	 * @return The per-pixel path weights of the map.
 	 */
-	public int[][] getExpandedGrid() {
+	public ExpandedGrid getExpandedGrid() {
 		return expandedGrid;
 	}
 }
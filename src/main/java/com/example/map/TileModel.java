@@ -1,10 +1,6 @@
 package com.example.map;
 
-import com.example.entity.ArcherTower;
-import com.example.entity.ArtilleryTower;
-import com.example.entity.MageTower;
 import com.example.entity.Tower;
-import com.example.game.GameManager;
 import com.example.utils.HP;
 import com.example.utils.Damageable;
 
@@ -57,61 +53,20 @@ public class TileModel {
 	}
 
 	/**
-	 * Places a tower on the tile with specified attributes.
+	 * Records a tower that the simulation has placed on the tile.
 	 *
-	 * @param towerType    The type of the tower to place.
-	 * @param hpValue      The initial HP value of the tower.
-	 * @param damage       The damage value of the tower.
-	 * @param cost         The cost of the tower.
-	 * @param range        The range of the tower.
-	 * @param upgradeLevel The upgrade level of the tower.
+	 * @param towerType The type of the tower.
+	 * @param tower     The tower standing on the tile.
 	 */
-	public void setTower(TileEnum towerType, int hpValue, int damage, int cost, int range, int upgradeLevel) {
+	public void setTower(TileEnum towerType, Tower tower) {
 		this.type = towerType;
-		switch (towerType) {
-			case ARCHERY_TOWER: {
-				tower = new ArcherTower(x, y, hpValue, damage, cost, upgradeLevel);
-				tower.setRange(range);
-				tower.setAttackCooldown(upgradeLevel >= 2 ? 0.4 : 0.5);
-				break;
-			}
-			case MAGE_TOWER: {
-				tower = new MageTower(x, y, hpValue, damage, cost, upgradeLevel);
-				tower.setRange(range);
-				tower.setAttackCooldown(0.5);
-				break;
-			}
-			case ARTILLERY_TOWER: {
-				tower = new ArtilleryTower(x, y, hpValue, damage, cost, upgradeLevel);
-				tower.setRange(range);
-				tower.setAttackCooldown(0.5);
-				break;
-			}
-			default:
-				throw new IllegalArgumentException("Invalid tower type");
-		}
-		GameManager.getInstance().placeTower(tower);
+		this.tower = tower;
 	}
 
 	/**
-	 * Upgrades the tower on the tile with new attributes.
-	 *
-	 * @param hpValue The new HP value of the tower.
-	 * @param damage  The new damage value of the tower.
-	 * @param range   The new range of the tower.
-	 */
-	public void upgradeTower(int hpValue, int damage, int range) {
-		if (tower == null) return;
-		GameManager.getInstance().removeTower(tower);
-		int level = tower.upgradeLevel + 1;
-		setTower(this.type, hpValue, damage, tower.goldCost, range, level);
-	}
-
-	/**
-	 * Removes the tower from the tile.
+	 * Clears the tower from the tile.
 	 */
 	public void removeTower() {
-		GameManager.getInstance().removeTower(tower);
 		this.type = TileEnum.EMPTY_TOWER_TILE;
 		this.tower = null;
 	}
@@ -0,0 +1,141 @@
+package com.example.map;
+
+import com.example.entity.ArcherTower;
+import com.example.entity.ArtilleryTower;
+import com.example.entity.MageTower;
+import com.example.entity.Tower;
+
+/**
+ * Creates towers from their tile types and holds the build and upgrade stats
+ * shared by the game screen and headless simulation runs.
+ */
+public class TowerFactory {
+	private static final int BASE_HP = 10;
+	private static final int BASE_DAMAGE = 5;
+	private static final int BASE_RANGE = 2;
+
+	/** Highest upgrade level a tower can reach. */
+	public static final int MAX_LEVEL = 2;
+
+	/**
+	 * Gets the gold cost of building a tower. Each upgrade costs the same again.
+	 *
+	 * @param towerType The tower tile type.
+	 * @return The build cost in gold.
+	 */
+	public static int buildCost(TileEnum towerType) {
+		return switch (towerType) {
+			case ARCHERY_TOWER -> 100;
+			case MAGE_TOWER -> 120;
+			case ARTILLERY_TOWER -> 140;
+			default -> 100;
+		};
+	}
+
+	/**
+	 * Gets the stats of an upgraded tower as {hp, damage, range}.
+	 *
+	 * @param towerType The tower tile type.
+	 * @return The upgraded stats.
+	 * @throws IllegalArgumentException If the type is not a tower.
+	 */
+	public static int[] upgradeStats(TileEnum towerType) {
+		return switch (towerType) {
+			case ARCHERY_TOWER -> new int[] { 12, 8, 4 };
+			case MAGE_TOWER -> new int[] { 12, 7, 3 };
+			case ARTILLERY_TOWER -> new int[] { 14, 15, 2 };
+			default -> throw new IllegalArgumentException("Invalid tower type");
+		};
+	}
+
+	/**
+	 * Creates a tower with the specified attributes.
+	 *
+	 * @param towerType    The type of the tower to create.
+	 * @param x            The tile x-coordinate of the tower.
+	 * @param y            The tile y-coordinate of the tower.
+	 * @param hpValue      The initial HP value of the tower.
+	 * @param damage       The damage value of the tower.
+	 * @param cost         The cost of the tower.
+	 * @param range        The range of the tower.
+	 * @param upgradeLevel The upgrade level of the tower.
+	 * @return The new tower.
+	 * @throws IllegalArgumentException If the type is not a tower.
+	 */
+	public static Tower create(TileEnum towerType, int x, int y, int hpValue, int damage, int cost, int range, int upgradeLevel) {
+		Tower tower;
+		switch (towerType) {
+			case ARCHERY_TOWER: {
+				tower = new ArcherTower(x, y, hpValue, damage, cost, upgradeLevel);
+				tower.setRange(range);
+				tower.setAttackCooldown(upgradeLevel >= 2 ? 0.4 : 0.5);
+				break;
+			}
+			case MAGE_TOWER: {
+				tower = new MageTower(x, y, hpValue, damage, cost, upgradeLevel);
+				tower.setRange(range);
+				tower.setAttackCooldown(0.5);
+				break;
+			}
+			case ARTILLERY_TOWER: {
+				tower = new ArtilleryTower(x, y, hpValue, damage, cost, upgradeLevel);
+				tower.setRange(range);
+				tower.setAttackCooldown(0.5);
+				break;
+			}
+			default:
+				throw new IllegalArgumentException("Invalid tower type");
+		}
+		return tower;
+	}
+
+	/**
+	 * Creates a tower at the given level with the same stats the game screen
+	 * gives a tower that was built and then upgraded to that level.
+	 *
+	 * @param towerType The type of the tower to create.
+	 * @param x         The tile x-coordinate of the tower.
+	 * @param y         The tile y-coordinate of the tower.
+	 * @param level     The upgrade level, from 1 to {@link #MAX_LEVEL}.
+	 * @return The new tower.
+	 * @throws IllegalArgumentException If the type is not a tower or the level is out of range.
+	 */
+	public static Tower build(TileEnum towerType, int x, int y, int level) {
+		if (level < 1 || level > MAX_LEVEL) {
+			throw new IllegalArgumentException("Invalid tower level: " + level);
+		}
+		int cost = buildCost(towerType);
+		if (level == 1) {
+			return create(towerType, x, y, BASE_HP, BASE_DAMAGE, cost, BASE_RANGE, 1);
+		}
+		int[] stats = upgradeStats(towerType);
+		return create(towerType, x, y, stats[0], stats[1], cost, stats[2], level);
+	}
+
+	/**
+	 * Gets the tile type of an existing tower.
+	 *
+	 * @param tower The tower.
+	 * @return The tower tile type.
+	 * @throws IllegalArgumentException If the tower is of an unknown kind.
+	 */
+	public static TileEnum typeOf(Tower tower) {
+		return switch (tower) {
+			case ArcherTower _ -> TileEnum.ARCHERY_TOWER;
+			case MageTower _ -> TileEnum.MAGE_TOWER;
+			case ArtilleryTower _ -> TileEnum.ARTILLERY_TOWER;
+			default -> throw new IllegalArgumentException("Invalid tower type");
+		};
+	}
+
+	/**
+	 * Gets the total gold spent on a tower built and upgraded to the given level.
+	 *
+	 * @param towerType The tower tile type.
+	 * @param level     The upgrade level.
+	 * @return The total cost in gold.
+	 */
+	public static int totalCost(TileEnum towerType, int level) {
+		return buildCost(towerType) * level;
+	}
+}
@@ -24,8 +24,7 @@ public class MapStorageManager {
 
     private static final int TILE_SIZE = 64;
     private static final Path MAP_DIRECTORY = Paths.get("cot", "data", "maps");
-    private static final TileRenderer RENDERER =
-            new TileRenderer("/com/example/assets/tiles/Tileset-64x64.png", TILE_SIZE);
+    private static TileRenderer renderer;
 
     /**
      * Saves the given map as a JSON file to the specified directory.
@@ -72,6 +71,47 @@ public class MapStorageManager {
      * @throws IOException if the map file does not exist or cannot be read
      */
     public static TileView[][] loadMap(String mapName) throws IOException {
+        TileEnum[][] types = loadMapTypes(mapName);
+        int rows = types.length;
+        int cols = rows == 0 ? 0 : types[0].length;
+
+        TileView[][] map = new TileView[rows][cols];
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                TileView tv = renderer().createTileView(types[r][c]);
+                tv.setFitWidth(TILE_SIZE);
+                tv.setFitHeight(TILE_SIZE);
+                tv.setPreserveRatio(false);
+
+                map[r][c] = tv;
+            }
+        }
+
+        return map;
+    }
+
+    /**
+     * Returns the tile renderer, loading the tileset on first use so that
+     * reading map data alone never touches image resources.
+     */
+    private static TileRenderer renderer() {
+        if (renderer == null) {
+            renderer = new TileRenderer("/com/example/assets/tiles/Tileset-64x64.png", TILE_SIZE);
+        }
+        return renderer;
+    }
+
+    /**
+     * Loads a map from a JSON file as plain tile types. Unlike
+     * {@link #loadMap(String)} this creates no views, so it can be used
+     * without a running JavaFX toolkit.
+     *
+     * @param mapName the name of the map file to load (without extension)
+     * @return a 2D array of tile types, indexed by row then column
+     * @throws IOException if the map file does not exist or cannot be read
+     */
+    public static TileEnum[][] loadMapTypes(String mapName) throws IOException {
         ObjectMapper mapper = new ObjectMapper();
         Path filePath = MAP_DIRECTORY.resolve(mapName + ".json");
 
@@ -84,20 +124,12 @@ public class MapStorageManager {
         int cols = root.get("cols").asInt();
         JsonNode tiles = root.get("tiles");
 
-        TileView[][] map = new TileView[rows][cols];
+        TileEnum[][] map = new TileEnum[rows][cols];
 
         for (int r = 0; r < rows; r++) {
             JsonNode rowNode = tiles.get(r);
             for (int c = 0; c < cols; c++) {
-                int flatIndex = rowNode.get(c).asInt();
-                TileEnum type = TileEnum.fromFlatIndex(flatIndex);
-
-                TileView tv = RENDERER.createTileView(type);
-                tv.setFitWidth(TILE_SIZE);
-                tv.setFitHeight(TILE_SIZE);
-                tv.setPreserveRatio(false);
-
-                map[r][c] = tv;
+                map[r][c] = TileEnum.fromFlatIndex(rowNode.get(c).asInt());
             }
         }
 
@@ -0,0 +1,31 @@
+package com.example.storage_manager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/** Utility methods for locating replay logs. */
+public class ReplayStorageManager {
+    private static final Path REPLAY_DIRECTORY = Paths.get("cot", "data", "replays");
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    /**
+     * Creates the replay directory if needed and returns a fresh path for a
+     * new recording of the given map.
+     * @param mapName name of the map being played
+     * @return path of the new replay file
+     * @throws IOException if the directory cannot be created
+     */
+    public static Path newReplayFile(String mapName) throws IOException {
+        Files.createDirectories(REPLAY_DIRECTORY);
+        String base = mapName + "-" + LocalDateTime.now().format(STAMP);
+        Path file = REPLAY_DIRECTORY.resolve(base + ".cotr");
+        for (int i = 2; Files.exists(file); i++) {
+            file = REPLAY_DIRECTORY.resolve(base + "-" + i + ".cotr");
+        }
+        return file;
+    }
+}
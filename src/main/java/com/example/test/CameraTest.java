@@ -0,0 +1,82 @@
+package com.example.test;
+
+import com.example.ui.Camera;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link Camera}.
+ * Checks that panning and zooming keep the view inside the world and the cursor's world point in place.
+ */
+class CameraTest {
+
+    /**
+     * Panning stops at the world's edges.
+     */
+    @Test
+    void panStaysInsideWorld() {
+        Camera camera = new Camera(6400, 6400);
+        camera.setViewport(1280, 960);
+
+        camera.pan(-500, -500);
+        assertEquals(0, camera.getMinX(), 1e-9);
+        assertEquals(0, camera.getMinY(), 1e-9);
+
+        camera.pan(10_000, 10_000);
+        assertEquals(6400, camera.getMaxX(), 1e-9);
+        assertEquals(6400, camera.getMaxY(), 1e-9);
+    }
+
+    /**
+     * Zooming keeps the world point under the cursor under the cursor.
+     */
+    @Test
+    void zoomKeepsCursorPoint() {
+        Camera camera = new Camera(6400, 6400);
+        camera.setViewport(1280, 960);
+        camera.centerOn(3200, 3200);
+
+        double worldX = camera.toWorldX(300), worldY = camera.toWorldY(200);
+        camera.zoomAt(1.5, 300, 200);
+        assertEquals(1.5, camera.getZoom(), 1e-9);
+        assertEquals(worldX, camera.toWorldX(300), 1e-9);
+        assertEquals(worldY, camera.toWorldY(200), 1e-9);
+    }
+
+    /**
+     * Zoom is limited, and a world smaller than the view is centred.
+     */
+    @Test
+    void zoomIsClampedAndSmallWorldCentred() {
+        Camera camera = new Camera(640, 480);
+        camera.setViewport(1280, 960);
+        camera.zoomAt(0.01, 0, 0);
+        assertEquals(1.0, camera.getZoom(), 1e-9);
+        assertEquals(-320, camera.getMinX(), 1e-9);
+        assertEquals(-240, camera.getMinY(), 1e-9);
+
+        camera.zoomAt(100, 0, 0);
+        assertEquals(Camera.MAX_ZOOM, camera.getZoom(), 1e-9);
+
+        Camera large = new Camera(64_000, 64_000);
+        large.setViewport(1280, 960);
+        large.zoomAt(0.01, 0, 0);
+        assertEquals(Camera.MIN_ZOOM, large.getZoom(), 1e-9);
+    }
+
+    /**
+     * Points are visible only within the view plus the margin.
+     */
+    @Test
+    void visibilityFollowsView() {
+        Camera camera = new Camera(6400, 6400);
+        camera.setViewport(1280, 960);
+        camera.pan(1000, 1000);
+
+        assertTrue(camera.isVisible(1500, 1500, 0));
+        assertFalse(camera.isVisible(900, 1500, 0));
+        assertTrue(camera.isVisible(900, 1500, 128));
+        assertFalse(camera.isVisible(1500, 2100, 0));
+    }
+}
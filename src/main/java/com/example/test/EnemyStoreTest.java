@@ -0,0 +1,109 @@
+package com.example.test;
+
+import com.example.entity.EnemyStore;
+import com.example.entity.Goblin;
+import com.example.utils.Point;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link EnemyStore}.
+ * Checks that stored enemies move exactly like unbound ones and survive swap-removal.
+ */
+class EnemyStoreTest {
+
+    /**
+     * Builds an L-shaped path of single-pixel steps.
+     *
+     * @return the path
+     */
+    private static List<Point> path() {
+        List<Point> path = new ArrayList<>();
+        for (int x = 0; x < 200; x++) path.add(new Point(x, 10));
+        for (int y = 10; y < 200; y++) path.add(new Point(199, y));
+        return path;
+    }
+
+    /**
+     * A stored enemy ends up at the same position, path progress and slow state as one updated on its own.
+     */
+    @Test
+    void storedEnemyMatchesUnboundEnemy() {
+        Goblin stored = new Goblin(path(), 50, 100);
+        Goblin unbound = new Goblin(path(), 50, 100);
+        EnemyStore store = new EnemyStore();
+        store.add(stored);
+
+        for (int i = 0; i < 300; i++) {
+            if (i == 40) {
+                stored.applySlow(0.5, 1.0);
+                unbound.applySlow(0.5, 1.0);
+            }
+            stored.update(1 / 60.0);
+            store.update(1 / 60.0);
+            unbound.update(1 / 60.0);
+            assertEquals(unbound.getX(), stored.getX(), 1e-9);
+            assertEquals(unbound.getY(), stored.getY(), 1e-9);
+            assertEquals(unbound.getPathProgress(), stored.getPathProgress(), 1e-9);
+            assertEquals(unbound.getSpeedModifier(), stored.getSpeedModifier());
+        }
+    }
+
+    /**
+     * Removing an enemy keeps the others' state and hands the removed one its state back.
+     */
+    @Test
+    void removeKeepsRemainingState() {
+        EnemyStore store = new EnemyStore(1);
+        List<Goblin> goblins = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Goblin g = new Goblin(path(), 20 + 10 * i, 100);
+            goblins.add(g);
+            store.add(g);
+        }
+        store.update(1.0);
+        goblins.get(3).applyDamage(30);
+
+        Goblin removed = goblins.getFirst();
+        double x = removed.getX();
+        store.remove(removed);
+
+        assertEquals(4, store.size());
+        assertEquals(x, removed.getX());
+        assertEquals(70, goblins.get(3).getHP());
+        for (int i = 1; i < goblins.size(); i++) {
+            assertEquals(20 + 10 * i, goblins.get(i).getX(), 1e-9);
+        }
+        assertThrows(IllegalArgumentException.class, () -> store.add(goblins.get(1)));
+    }
+
+    /**
+     * Render positions lie between the positions before and after the last tick, stored or not.
+     */
+    @Test
+    void renderPositionInterpolatesLastTick() {
+        Goblin stored = new Goblin(path(), 60, 100);
+        Goblin unbound = new Goblin(path(), 60, 100);
+        EnemyStore store = new EnemyStore();
+        store.add(stored);
+
+        for (Goblin g : List.of(stored, unbound)) {
+            assertEquals(g.getX(), g.getRenderX(0.5), 1e-9);
+        }
+        double before = stored.getX();
+        stored.update(1 / 60.0);
+        store.update(1 / 60.0);
+        unbound.update(1 / 60.0);
+
+        for (Goblin g : List.of(stored, unbound)) {
+            assertEquals(before, g.getRenderX(0), 1e-9);
+            assertEquals(g.getX(), g.getRenderX(1), 1e-9);
+            assertEquals((before + g.getX()) / 2, g.getRenderX(0.5), 1e-9);
+            assertEquals(10, g.getRenderY(0.5), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.test;
+
+import com.example.entity.EntityPool;
+import com.example.entity.EntityRegistry;
+import com.example.entity.GoldBag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link EntityPool}.
+ * Checks reuse, hit/miss counting and recycling through the entity registry.
+ */
+class EntityPoolTest {
+
+    /**
+     * A released entity is handed out again and counted as a hit.
+     */
+    @Test
+    void releasedEntityIsReused() {
+        EntityPool<GoldBag> pool = new EntityPool<>(GoldBag::new, 4);
+
+        GoldBag first = pool.acquire();
+        pool.release(first);
+        GoldBag second = pool.acquire();
+
+        assertSame(first, second);
+        assertEquals(1, pool.getHits());
+        assertEquals(1, pool.getMisses());
+        assertEquals(0, pool.getAvailable());
+    }
+
+    /**
+     * The pool keeps no more released entities than its capacity.
+     */
+    @Test
+    void capacityIsBounded() {
+        EntityPool<GoldBag> pool = new EntityPool<>(GoldBag::new, 2);
+        for (int i = 0; i < 5; i++) pool.release(new GoldBag());
+        assertEquals(2, pool.getAvailable());
+    }
+
+    /**
+     * Entities are recycled only once the registry has actually removed them.
+     */
+    @Test
+    void registryRemovalRecyclesEntity() {
+        EntityPool<GoldBag> pool = new EntityPool<>(GoldBag::new, 4);
+        EntityRegistry registry = new EntityRegistry();
+        registry.setOnRemoved(e -> pool.release((GoldBag) e));
+
+        GoldBag bag = pool.acquire();
+        bag.reset(5, 5, 10);
+        registry.add(bag);
+        registry.flush();
+        registry.remove(bag);
+        assertEquals(0, pool.getAvailable());
+
+        registry.flush();
+        assertEquals(1, pool.getAvailable());
+        assertSame(bag, pool.acquire());
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.test;
+
+import com.example.entity.Entity;
+import com.example.entity.EntityRegistry;
+import com.example.entity.GoldBag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link EntityRegistry}.
+ * Checks buffered lifecycle changes, swap-removal and per-type counts.
+ */
+class EntityRegistryTest {
+
+    /**
+     * Buffered additions and removals only take effect on flush, after which the buffers are empty.
+     */
+    @Test
+    void changesApplyOnFlush() {
+        EntityRegistry registry = new EntityRegistry();
+        GoldBag a = new GoldBag(0, 0, 1);
+        GoldBag b = new GoldBag(10, 10, 1);
+
+        registry.add(a);
+        registry.add(b);
+        assertEquals(0, registry.size());
+        assertEquals(2, registry.pendingCount());
+
+        registry.flush();
+        assertEquals(2, registry.size());
+        assertEquals(0, registry.pendingCount());
+        assertEquals(2, registry.count(GoldBag.class));
+
+        registry.remove(a);
+        registry.remove(a);
+        assertTrue(registry.contains(a));
+        registry.flush();
+        assertFalse(registry.contains(a));
+        assertEquals(1, registry.size());
+        assertSame(b, registry.get(0));
+        assertEquals(1, registry.count(GoldBag.class));
+    }
+
+    /**
+     * Removing an entity that is still pending addition cancels the addition.
+     */
+    @Test
+    void removeCancelsPendingAdd() {
+        EntityRegistry registry = new EntityRegistry();
+        GoldBag bag = new GoldBag(0, 0, 1);
+
+        registry.add(bag);
+        registry.remove(bag);
+        registry.flush();
+
+        assertEquals(0, registry.size());
+        assertFalse(registry.contains(bag));
+        assertEquals(0, registry.count(GoldBag.class));
+    }
+
+    /**
+     * Repeated swap-removal keeps exactly the surviving entities live.
+     */
+    @Test
+    void swapRemoveKeepsSurvivors() {
+        EntityRegistry registry = new EntityRegistry();
+        List<Entity> all = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            GoldBag bag = new GoldBag(i, i, 1);
+            all.add(bag);
+            registry.addNow(bag);
+        }
+        Set<Entity> expected = new HashSet<>(all);
+        for (int i = 0; i < all.size(); i += 3) {
+            registry.remove(all.get(i));
+            expected.remove(all.get(i));
+        }
+        registry.flush();
+
+        Set<Entity> actual = new HashSet<>();
+        for (Entity e : registry) actual.add(e);
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), registry.size());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.test;
+
+import com.example.game.Simulation;
+import com.example.map.ExpandedGrid;
+import com.example.map.GameMap;
+import com.example.map.TileEnum;
+import com.example.utils.FlowField;
+import com.example.utils.Point;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link FlowField}.
+ * Checks that incremental repairs end up with the same distances as a field
+ * solved from scratch.
+ */
+class FlowFieldTest {
+
+    private static final TileEnum H = TileEnum.HORIZONTAL_PATH;
+
+    /**
+     * Builds a map with two parallel roads from the left edge into a castle on the right.
+     *
+     * @return the map used by the tests
+     */
+    private static GameMap doubleRoadMap() {
+        return new GameMap(new TileEnum[][] {
+                { H, H, H, H, TileEnum.CASTLE_TOP_LEFT, TileEnum.CASTLE_TOP_RIGHT },
+                { H, H, H, H, TileEnum.CASTLE_BOTTOM_LEFT, TileEnum.CASTLE_BOTTOM_RIGHT }
+        });
+    }
+
+    private static void assertSameDistances(FlowField expected, FlowField actual, ExpandedGrid grid) {
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                float e = expected.getDistance(x, y), a = actual.getDistance(x, y);
+                if (Float.isInfinite(e)) {
+                    assertTrue(Float.isInfinite(a), "cell " + x + "," + y);
+                } else {
+                    assertEquals(e, a, Math.ulp(e) * 64, "cell " + x + "," + y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Blocking an area and repairing gives the distances of a field solved on
+     * the changed grid, and leaves the field it was copied from untouched.
+     */
+    @Test
+    void repairMatchesFullSolve() {
+        GameMap map = doubleRoadMap();
+        FlowField original = Simulation.buildFlowField(map);
+        FlowField repaired = original.copy();
+        ExpandedGrid changed = map.getExpandedGrid().copy();
+        for (int y = 64; y < 128; y++) {
+            for (int x = 128; x < 150; x++) {
+                repaired.setWeight(x, y, 0);
+                changed.set(changed.index(x, y), 0);
+            }
+        }
+
+        int updated = repaired.repair();
+
+        assertTrue(updated > 0);
+        assertTrue(updated < changed.getWidth() * changed.getHeight());
+        assertSameDistances(FlowField.build(changed, map.getGoalPoints()), repaired, changed);
+        assertSameDistances(Simulation.buildFlowField(map), original, changed);
+        assertTrue(Float.isInfinite(repaired.getDistance(140, 100)));
+    }
+
+    /**
+     * Opening a blocked area again restores the original distances.
+     */
+    @Test
+    void unblockRestoresField() {
+        GameMap map = doubleRoadMap();
+        FlowField original = Simulation.buildFlowField(map);
+        FlowField field = original.copy();
+        for (int y = 0; y < 64; y++) {
+            for (int x = 64; x < 128; x++) field.setWeight(x, y, 0);
+        }
+        field.repair();
+        for (int y = 0; y < 64; y++) {
+            for (int x = 64; x < 128; x++) field.setWeight(x, y, map.getExpandedGrid().get(x, y));
+        }
+        field.repair();
+
+        assertSameDistances(original, field, map.getExpandedGrid());
+        assertEquals(0, field.repair());
+    }
+
+    /**
+     * With two castles, every enemy walks to the nearer one.
+     */
+    @Test
+    void enemiesHeadForNearestCastle() {
+        GameMap map = new GameMap(new TileEnum[][] {
+                { TileEnum.CASTLE_TOP_LEFT, TileEnum.CASTLE_TOP_RIGHT, H, H, H, H, TileEnum.CASTLE_TOP_LEFT, TileEnum.CASTLE_TOP_RIGHT },
+                { TileEnum.CASTLE_BOTTOM_LEFT, TileEnum.CASTLE_BOTTOM_RIGHT, TileEnum.GRASS, TileEnum.GRASS,
+                        TileEnum.GRASS, TileEnum.GRASS, TileEnum.CASTLE_BOTTOM_LEFT, TileEnum.CASTLE_BOTTOM_RIGHT }
+        });
+        FlowField field = Simulation.buildFlowField(map);
+        Random rng = new Random(2);
+
+        for (int x = 140; x < 370; x += 10) {
+            List<Point> path = field.walk(new Point(x, 0), rng);
+            Point end = path.getLast();
+            assertEquals(96, map.getExpandedGrid().get(end.x(), end.y()));
+            if (x < 240) {
+                assertTrue(end.x() < 128, "start " + x);
+            } else if (x > 272) {
+                assertTrue(end.x() >= 384, "start " + x);
+            }
+        }
+        assertEquals(0, field.getDistance(100, 40));
+        assertEquals(0, field.getDistance(400, 40));
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.test;
+
+import com.example.map.ExpandedGrid;
+import com.example.map.GameMap;
+import com.example.map.TileEnum;
+import com.example.utils.PathFinder;
+import com.example.utils.Point;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the expanded grid and indices built by {@link GameMap}.
+ */
+class GameMapTest {
+
+    private static final TileEnum G = TileEnum.GRASS;
+    private static final TileEnum H = TileEnum.HORIZONTAL_PATH;
+
+    /**
+     * Road tiles should be walkable with raised lanes, the castle's lower half
+     * should be the goal and everything else should be blocked.
+     */
+    @Test
+    void expandedGridHoldsPathWeights() {
+        GameMap map = new GameMap(new TileEnum[][] {
+                { G, G, TileEnum.CASTLE_TOP_LEFT, TileEnum.CASTLE_TOP_RIGHT },
+                { H, H, TileEnum.CASTLE_BOTTOM_LEFT, TileEnum.CASTLE_BOTTOM_RIGHT }
+        });
+        ExpandedGrid grid = map.getExpandedGrid();
+
+        assertEquals(256, grid.getWidth());
+        assertEquals(128, grid.getHeight());
+        assertEquals(-1, grid.get(10, 10));
+        assertEquals(32, grid.get(70, 96));
+        assertEquals(32, grid.get(96, 70));
+        assertEquals(32, grid.get(64 + 5, 64 + 5));
+        assertEquals(1, grid.get(64 + 10, 64 + 5));
+        assertEquals(64, grid.get(0, 100));
+        assertEquals(-1, grid.get(130, 10));
+        assertEquals(96, grid.get(130, 40));
+        assertEquals(96, grid.get(200, 100));
+        assertEquals(grid.get(70, 96), grid.get(grid.index(70, 96)));
+    }
+
+    /**
+     * The spawn and castle indices should match what a scan of the grid finds.
+     */
+    @Test
+    void indicesMatchGridScan() {
+        GameMap map = new GameMap(new TileEnum[][] {
+                { G, G, TileEnum.CASTLE_TOP_LEFT, TileEnum.CASTLE_TOP_RIGHT },
+                { H, H, TileEnum.CASTLE_BOTTOM_LEFT, TileEnum.CASTLE_BOTTOM_RIGHT }
+        });
+        ExpandedGrid grid = map.getExpandedGrid();
+
+        assertEquals(PathFinder.findCastlePoint(grid), map.getCastlePoint());
+        List<Point> spawns = new ArrayList<>();
+        int w = grid.getWidth(), h = grid.getHeight();
+        for (int x = 0; x < w; x++) {
+            if (grid.get(x, 0) == 64) spawns.add(new Point(x, 0));
+            if (grid.get(x, h - 1) == 64) spawns.add(new Point(x, h - 1));
+        }
+        for (int y = 0; y < h; y++) {
+            if (grid.get(0, y) == 64) spawns.add(new Point(0, y));
+            if (grid.get(w - 1, y) == 64) spawns.add(new Point(w - 1, y));
+        }
+        assertEquals(spawns, map.getSpawnPoints());
+        int goals = 0;
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                if (grid.get(x, y) == 96) goals++;
+            }
+        }
+        assertEquals(goals, map.getGoalCount());
+        assertThrows(UnsupportedOperationException.class, () -> map.getSpawnPoints().clear());
+    }
+
+    /**
+     * Roads that do not touch should be separate components.
+     */
+    @Test
+    void separateRoadsAreSeparateComponents() {
+        GameMap map = new GameMap(new TileEnum[][] {
+                { H, H, G, TileEnum.CASTLE_TOP_LEFT, TileEnum.CASTLE_TOP_RIGHT },
+                { G, G, G, TileEnum.CASTLE_BOTTOM_LEFT, TileEnum.CASTLE_BOTTOM_RIGHT },
+                { H, H, H, H, G }
+        });
+
+        assertEquals(2, map.getRoadComponentCount());
+        assertEquals(map.getRoadComponent(0, 0), map.getRoadComponent(1, 0));
+        assertNotEquals(map.getRoadComponent(1, 0), map.getRoadComponent(3, 0));
+        assertEquals(map.getRoadComponent(3, 2), map.getRoadComponent(4, 1));
+        assertEquals(-1, map.getRoadComponent(2, 0));
+        assertTrue(PathFinder.findPath(map, new Point(0, 32), map.getCastlePoint(), new Random(1)).isEmpty());
+    }
+
+    /**
+     * Castles apart from each other are counted and filled separately.
+     */
+    @Test
+    void separateCastlesKeepTheirOwnGoals() {
+        GameMap map = new GameMap(new TileEnum[][] {
+                { TileEnum.CASTLE_TOP_LEFT, TileEnum.CASTLE_TOP_RIGHT, H, H, TileEnum.CASTLE_TOP_LEFT, TileEnum.CASTLE_TOP_RIGHT },
+                { TileEnum.CASTLE_BOTTOM_LEFT, TileEnum.CASTLE_BOTTOM_RIGHT, G, G, TileEnum.CASTLE_BOTTOM_LEFT, TileEnum.CASTLE_BOTTOM_RIGHT }
+        });
+        ExpandedGrid grid = map.getExpandedGrid();
+
+        assertEquals(2, map.getCastleCount());
+        assertEquals(96, grid.get(10, 100));
+        assertEquals(96, grid.get(300, 100));
+        assertEquals(-1, grid.get(200, 100));
+        assertEquals(map.getGoalCount(), map.getGoalPoints().size());
+        assertEquals(map.getCastlePoint(), map.getGoalPoints().getFirst());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.test;
+
+import com.example.map.ExpandedGrid;
+import com.example.utils.PathFinder;
+import com.example.utils.Point;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PathFinder}.
+ * Searches the expanded grid of a small map.
+ */
+class PathFinderTest {
+
+    private static ExpandedGrid straightRoadGrid() {
+        return TestMaps.straightRoadMap().getExpandedGrid();
+    }
+
+    /**
+     * A found path should start at the spawn point and move one cell at a
+     * time over walkable cells.
+     */
+    @Test
+    void pathIsConnected() {
+        ExpandedGrid grid = straightRoadGrid();
+        Point start = PathFinder.findRandomSpawnPoint(grid, new Random(1));
+        Point goal = PathFinder.findCastlePoint(grid);
+
+        List<Point> path = PathFinder.findPath(grid, start, goal, new Random(1));
+
+        assertFalse(path.isEmpty());
+        assertEquals(start, path.get(0));
+        for (int i = 1; i < path.size(); i++) {
+            Point a = path.get(i - 1), b = path.get(i);
+            assertTrue(Math.abs(a.x() - b.x()) <= 1 && Math.abs(a.y() - b.y()) <= 1);
+            assertTrue(grid.get(b.x(), b.y()) > 0);
+        }
+    }
+
+    /**
+     * Searches reuse their buffers, so a repeated search with the same random
+     * source must give the same path as the first one.
+     */
+    @Test
+    void repeatedSearchesAgree() {
+        ExpandedGrid grid = straightRoadGrid();
+        Point start = PathFinder.findRandomSpawnPoint(grid, new Random(3));
+        Point goal = PathFinder.findCastlePoint(grid);
+
+        List<Point> first = PathFinder.findPath(grid, start, goal, new Random(5));
+        for (int i = 0; i < 20; i++) {
+            PathFinder.findPath(grid, start, goal, new Random(i));
+        }
+        assertEquals(first, PathFinder.findPath(grid, start, goal, new Random(5)));
+    }
+
+    /**
+     * An unreachable goal should give an empty path.
+     */
+    @Test
+    void unreachableGoalGivesEmptyPath() {
+        ExpandedGrid grid = straightRoadGrid();
+        Point start = PathFinder.findRandomSpawnPoint(grid, new Random(1));
+
+        assertTrue(PathFinder.findPath(grid, start, new Point(0, 0), new Random(1)).isEmpty());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.test;
+
+import com.example.game.PathPlanner;
+import com.example.game.Simulation;
+import com.example.map.GameMap;
+import com.example.utils.PathPolyline;
+import com.example.utils.PathVariantCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PathPlanner}.
+ * Checks that routes planned in the background depend only on their seed.
+ */
+class PathPlannerTest {
+
+    private static void assertSameRoutes(List<PathPolyline> expected, List<PathPolyline> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).startX(), actual.get(i).startX());
+            assertEquals(expected.get(i).startY(), actual.get(i).startY());
+            assertEquals(expected.get(i).totalLength(), actual.get(i).totalLength());
+        }
+    }
+
+    /**
+     * Routes planned in the background match routes planned on the calling thread.
+     */
+    @Test
+    void backgroundPlanMatchesSynchronousPlan() {
+        GameMap map = TestMaps.straightRoadMap();
+        PathPlanner planner = new PathPlanner(new PathVariantCache(map, Simulation.buildFlowField(map), 1L));
+
+        List<PathPolyline> direct = planner.planNow(12, 42L);
+        List<PathPolyline> planned = planner.plan(12, 42L).join();
+
+        assertEquals(12, planned.size());
+        assertSameRoutes(direct, planned);
+    }
+
+    /**
+     * The planner only runs on the executor it was given, where it first warms
+     * up its variants, and the future completes once the work has run.
+     */
+    @Test
+    void planRunsOnGivenExecutor() {
+        GameMap map = TestMaps.straightRoadMap();
+        List<Runnable> queued = new ArrayList<>();
+        Executor deferred = queued::add;
+        PathVariantCache variants = new PathVariantCache(map, Simulation.buildFlowField(map), 1L);
+        PathPlanner planner = new PathPlanner(variants, deferred);
+        assertEquals(1, queued.size());
+        assertEquals(0, variants.getCachedBytes());
+
+        CompletableFuture<List<PathPolyline>> future = planner.plan(3, 7L);
+        assertFalse(future.isDone());
+        assertEquals(2, queued.size());
+
+        queued.removeFirst().run();
+        assertTrue(variants.getCachedBytes() > 0);
+        queued.removeFirst().run();
+        assertTrue(future.isDone());
+        assertSameRoutes(planner.planNow(3, 7L), future.join());
+    }
+}
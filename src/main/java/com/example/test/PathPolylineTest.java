@@ -0,0 +1,106 @@
+package com.example.test;
+
+import com.example.utils.PathPolyline;
+import com.example.utils.Point;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PathPolyline}.
+ * Checks the simplification of pixel paths and lookups by arc length.
+ */
+class PathPolylineTest {
+
+    /**
+     * Builds an L-shaped path of single-pixel steps.
+     *
+     * @return the path
+     */
+    private static List<Point> path() {
+        List<Point> path = new ArrayList<>();
+        for (int x = 0; x < 200; x++) path.add(new Point(x, 10));
+        for (int y = 11; y < 200; y++) path.add(new Point(199, y));
+        return path;
+    }
+
+    /**
+     * Straight runs collapse to their end points and the length is kept.
+     */
+    @Test
+    void collapsesStraightRuns() {
+        PathPolyline polyline = PathPolyline.of(path());
+
+        assertEquals(3, polyline.vertexCount());
+        assertEquals(199 + 189, polyline.totalLength(), 1e-6);
+        assertEquals(0, polyline.startX());
+        assertEquals(10, polyline.startY());
+    }
+
+    /**
+     * Positions looked up by distance lie on the original path.
+     */
+    @Test
+    void positionsFollowPath() {
+        PathPolyline polyline = PathPolyline.of(path());
+
+        int seg = polyline.segmentAt(50.5);
+        assertEquals(50.5, polyline.xAt(seg, 50.5), 1e-6);
+        assertEquals(10, polyline.yAt(seg, 50.5), 1e-6);
+
+        seg = polyline.segmentAt(250);
+        assertEquals(199, polyline.xAt(seg, 250), 1e-6);
+        assertEquals(61, polyline.yAt(seg, 250), 1e-6);
+
+        double end = polyline.totalLength() + 10;
+        seg = polyline.segmentAt(end);
+        assertEquals(199, polyline.xAt(seg, end), 1e-6);
+        assertEquals(199, polyline.yAt(seg, end), 1e-6);
+    }
+
+    /**
+     * Scanning forward from an earlier segment finds the same segment as the binary search.
+     */
+    @Test
+    void advanceMatchesBinarySearch() {
+        List<Point> zigzag = new ArrayList<>();
+        int x = 0, y = 0;
+        zigzag.add(new Point(x, y));
+        for (int leg = 0; leg < 20; leg++) {
+            for (int i = 0; i < 10; i++) {
+                x++;
+                y += leg % 2 == 0 ? 1 : -1;
+                zigzag.add(new Point(x, y));
+            }
+        }
+        PathPolyline polyline = PathPolyline.of(zigzag);
+        assertEquals(21, polyline.vertexCount());
+
+        int seg = 0;
+        for (double d = 0; d <= polyline.totalLength(); d += 0.7) {
+            seg = polyline.advance(seg, d);
+            assertEquals(polyline.segmentAt(d), seg);
+        }
+    }
+
+    /**
+     * Small wiggles are smoothed away, a single point is a path of length zero
+     * and an empty path is rejected.
+     */
+    @Test
+    void edgeCases() {
+        List<Point> wiggle = new ArrayList<>();
+        for (int x = 0; x < 100; x++) wiggle.add(new Point(x, x % 2));
+        assertEquals(2, PathPolyline.of(wiggle).vertexCount());
+
+        PathPolyline single = PathPolyline.of(List.of(new Point(5, 7)));
+        assertEquals(0, single.totalLength());
+        assertEquals(5, single.xAt(single.segmentAt(3), 3));
+        assertEquals(7, single.yAt(single.segmentAt(3), 3));
+
+        assertThrows(IllegalArgumentException.class, () -> PathPolyline.of(List.of()));
+    }
+}
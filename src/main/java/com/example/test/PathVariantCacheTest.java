@@ -0,0 +1,67 @@
+package com.example.test;
+
+import com.example.game.Simulation;
+import com.example.map.GameMap;
+import com.example.utils.FlowField;
+import com.example.utils.PathPolyline;
+import com.example.utils.PathVariantCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PathVariantCache}.
+ * Checks that variants are shared, reproducible and bounded by the memory cap.
+ */
+class PathVariantCacheTest {
+
+    /**
+     * A variant is walked once and then shared; a cache with the same seed
+     * walks the same variants whether warmed up or filled lazily.
+     */
+    @Test
+    void variantsAreSharedAndReproducible() {
+        GameMap map = TestMaps.straightRoadMap();
+        FlowField field = Simulation.buildFlowField(map);
+        PathVariantCache warm = new PathVariantCache(map, field, 5L, 3, PathVariantCache.DEFAULT_MAX_BYTES);
+        PathVariantCache lazy = new PathVariantCache(map, field, 5L, 3, PathVariantCache.DEFAULT_MAX_BYTES);
+        warm.warmUp();
+
+        for (int s = map.getSpawnPoints().size() - 1; s >= 0; s--) {
+            for (int v = 0; v < 3; v++) {
+                PathPolyline route = warm.get(s, v);
+                assertSame(route, warm.get(s, v));
+                assertEquals(route.totalLength(), lazy.get(s, v).totalLength());
+                assertEquals(map.getSpawnPoints().get(s).y(), route.startY());
+            }
+        }
+        assertEquals(warm.getCachedBytes(), lazy.getCachedBytes());
+
+        Random a = new Random(9), b = new Random(9);
+        for (int i = 0; i < 20; i++) {
+            assertSame(warm.get(a), warm.get(b));
+        }
+    }
+
+    /**
+     * Nothing is kept past the memory cap.
+     */
+    @Test
+    void capLimitsCachedRoutes() {
+        GameMap map = TestMaps.straightRoadMap();
+        FlowField field = Simulation.buildFlowField(map);
+        PathVariantCache none = new PathVariantCache(map, field, 5L, 2, 0);
+        none.warmUp();
+        assertEquals(0, none.getCachedBytes());
+        assertNotSame(none.get(0, 0), none.get(0, 0));
+
+        PathVariantCache cache = new PathVariantCache(map, field, 5L);
+        PathPolyline route = cache.get(0, 1);
+        assertTrue(cache.getCachedBytes() > 0);
+        assertSame(route, cache.get(0, 1));
+
+        assertThrows(IllegalArgumentException.class, () -> new PathVariantCache(map, field, 5L, 0, 1));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.test;
+
+import com.example.entity.AnimatedEntity;
+import com.example.entity.Entity;
+import com.example.entity.EntityRegistry;
+import com.example.entity.Projectile;
+import com.example.entity.Tower;
+import com.example.game.Simulation;
+import com.example.map.TileEnum;
+import com.example.map.TowerFactory;
+import com.example.player.PlayerState;
+import com.example.ui.RenderQueue;
+import com.example.utils.Point;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link Projectile}.
+ * Flies a shot at a stationary enemy inside a headless simulation.
+ */
+class ProjectileTest {
+
+    /**
+     * Steps a projectile with a time step of its own from inside the
+     * simulation's tick, so that one step covers several pixels.
+     */
+    private static final class Stepper extends Entity {
+        private final Projectile shot;
+        private final double dt;
+
+        Stepper(Projectile shot, double dt) {
+            super(0, 0, 0);
+            this.shot = shot;
+            this.dt = dt;
+        }
+
+        @Override
+        public void update(double ignored) {
+            shot.update(dt);
+        }
+
+        @Override
+        public void render(RenderQueue queue, double alpha) {}
+    }
+
+    /**
+     * A projectile whose next step would carry it past its aim point lands
+     * on the aim point itself and hits its target there.
+     */
+    @Test
+    void landsOnAimPointInsteadOfOvershooting() {
+        EntityRegistry entities = new EntityRegistry();
+        Simulation sim = new Simulation(TestMaps.straightRoadMap(), entities, new PlayerState(100, 10));
+        Tower tower = TowerFactory.build(TileEnum.ARCHERY_TOWER, 2, 2, 1);
+        sim.spawnGoblin(0, 1000);
+        AnimatedEntity target = sim.getEnemies().get(0);
+        Point aim = target.getFuturePosition();
+
+        double x1 = tower.getX() * 64 + 32, y1 = tower.getY() * 64 + 32;
+        Projectile shot = new Projectile(tower, x1, y1, target);
+        // 10 px per step; the distance to the aim point is not a whole number of steps
+        double step = 10;
+        double distance = Math.hypot(aim.x() - x1, aim.y() - y1);
+        assertNotEquals(0, distance % step, 1e-6);
+        entities.add(new Stepper(shot, 1.0));
+
+        int steps = (int) (distance / step);
+        sim.step(steps);
+        double left = Math.hypot(aim.x() - shot.getX(), aim.y() - shot.getY());
+        assertEquals(distance % step, left, 1e-6);
+        assertEquals(1000, target.getHP());
+
+        sim.step(1);
+
+        assertEquals(aim.x(), shot.getX());
+        assertEquals(aim.y(), shot.getY());
+        assertEquals(1000 - target.modifyDamage(tower, tower.baseDamage), target.getHP());
+
+        sim.step(1);
+        assertEquals(aim.x(), shot.getX());
+        assertEquals(aim.y(), shot.getY());
+    }
+}
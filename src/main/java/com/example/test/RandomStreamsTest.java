@@ -0,0 +1,53 @@
+package com.example.test;
+
+import com.example.utils.RandomStreams;
+import com.example.utils.RandomStreams.Stream;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link RandomStreams}.
+ * Checks that streams are reproducible and do not influence each other.
+ */
+class RandomStreamsTest {
+
+    /**
+     * The same seed gives the same sequence on every stream.
+     */
+    @Test
+    void sameSeedSameSequences() {
+        RandomStreams a = new RandomStreams(7);
+        RandomStreams b = new RandomStreams(7);
+        for (Stream s : Stream.values()) {
+            for (int i = 0; i < 100; i++) {
+                assertEquals(a.get(s).nextLong(), b.get(s).nextLong());
+            }
+        }
+    }
+
+    /**
+     * Drawing from one stream leaves the others untouched.
+     */
+    @Test
+    void streamsAreIndependent() {
+        RandomStreams a = new RandomStreams(7);
+        RandomStreams b = new RandomStreams(7);
+        for (int i = 0; i < 50; i++) a.cosmetic().nextInt();
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(a.path().nextDouble(), b.path().nextDouble());
+            assertEquals(a.loot().nextInt(), b.loot().nextInt());
+        }
+    }
+
+    /**
+     * Different streams of one session do not produce the same sequence.
+     */
+    @Test
+    void streamsDiffer() {
+        RandomStreams r = new RandomStreams(7);
+        assertNotEquals(r.path().nextLong(), r.combat().nextLong());
+        assertEquals(7, r.getSeed());
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.test;
+
+import com.example.entity.EntityGroup;
+import com.example.entity.EntityRegistry;
+import com.example.game.ReplayCommand;
+import com.example.game.ReplayPlayer;
+import com.example.game.ReplayRecorder;
+import com.example.game.Simulation;
+import com.example.game.Wave;
+import com.example.map.GameMap;
+import com.example.map.TileEnum;
+import com.example.player.PlayerState;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link ReplayRecorder} and {@link ReplayPlayer}.
+ * Records a short scripted session and plays it back headless.
+ */
+class ReplayTest {
+
+    private static final TileEnum G = TileEnum.GRASS;
+    private static final TileEnum H = TileEnum.HORIZONTAL_PATH;
+    private static final TileEnum T = TileEnum.EMPTY_TOWER_TILE;
+
+    /**
+     * Plays a scripted session the way the game screen would, recording
+     * every command and a checksum every 600 ticks.
+     */
+    private static byte[] recordSession(List<ReplayCommand> recorded) throws IOException {
+        List<Wave> waves = List.of(new Wave(new EntityGroup(4, 3, 2)), new Wave(new EntityGroup(3, 2, 0)));
+        PlayerState state = new PlayerState(400, 10);
+        GameMap map = TestMaps.straightRoadMapWithTowerSlots();
+        Simulation sim = new Simulation(map, Simulation.buildFlowField(map), new EntityRegistry(), state, 7);
+        sim.setWavesFromGroups(waves);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ReplayRecorder recorder = new ReplayRecorder(bytes, sim.getSeed(), "test", 400, 10, waves);
+        while (sim.getTickCount() < 60 * 90) {
+            long t = sim.getTickCount();
+            ReplayCommand command = null;
+            if (t == 0 && sim.buildTower(TileEnum.ARCHERY_TOWER, 1, 0) != null) {
+                command = new ReplayCommand.Build(t, TileEnum.ARCHERY_TOWER, 1, 0);
+            } else if (t == 200 && sim.buildTower(TileEnum.MAGE_TOWER, 2, 2) != null) {
+                command = new ReplayCommand.Build(t, TileEnum.MAGE_TOWER, 2, 2);
+            } else if (t == 900 && sim.upgradeTower(1, 0) != null) {
+                command = new ReplayCommand.Upgrade(t, 1, 0);
+            } else if (t == 2000 && sim.sellTower(2, 2)) {
+                command = new ReplayCommand.Sell(t, 2, 2);
+            } else if (t == 2500) {
+                command = new ReplayCommand.Speed(t, 4f);
+            }
+            if (command != null) {
+                recorder.record(command);
+                recorded.add(command);
+            }
+            sim.tick();
+            if (sim.getTickCount() % 600 == 0) {
+                ReplayCommand checksum = new ReplayCommand.Checksum(sim.getTickCount(), sim.stateHash());
+                recorder.record(checksum);
+                recorded.add(checksum);
+            }
+        }
+        recorder.finish(sim.getTickCount());
+        return bytes.toByteArray();
+    }
+
+    /**
+     * A recorded log should read back with the same header and commands.
+     */
+    @Test
+    void logRoundTrips() throws IOException {
+        List<ReplayCommand> recorded = new ArrayList<>();
+        byte[] log = recordSession(recorded);
+
+        ReplayPlayer.Replay replay = ReplayPlayer.read(new ByteArrayInputStream(log));
+
+        assertEquals(7, replay.seed());
+        assertEquals("test", replay.mapName());
+        assertEquals(400, replay.startingGold());
+        assertEquals(10, replay.lives());
+        assertEquals(2, replay.waves().size());
+        assertEquals(3, replay.waves().get(0).group.warriors);
+        assertEquals(recorded, replay.commands());
+        assertEquals(60 * 90, replay.endTick());
+    }
+
+    /**
+     * Playing the log back should reproduce every checksum.
+     */
+    @Test
+    void playbackStaysInSync() throws IOException {
+        List<ReplayCommand> recorded = new ArrayList<>();
+        ReplayPlayer.Replay replay = ReplayPlayer.read(new ByteArrayInputStream(recordSession(recorded)));
+
+        ReplayPlayer.Report report = ReplayPlayer.play(replay, TestMaps.straightRoadMapWithTowerSlots(), Long.MAX_VALUE, 5);
+
+        assertTrue(report.inSync());
+        assertEquals(9, report.checksumsVerified());
+        assertEquals(60 * 90, report.ticks());
+        assertEquals(5, report.slowestTicks().size());
+    }
+
+    /**
+     * A log that was cut short should still play up to its last complete command.
+     */
+    @Test
+    void truncatedLogPlaysToLastCommand() throws IOException {
+        List<ReplayCommand> recorded = new ArrayList<>();
+        byte[] log = recordSession(recorded);
+
+        // Drop the end marker and part of the last checksum
+        ReplayPlayer.Replay replay = ReplayPlayer.read(new ByteArrayInputStream(Arrays.copyOf(log, log.length - 8)));
+
+        assertEquals(recorded.size() - 1, replay.commands().size());
+        ReplayPlayer.Report report = ReplayPlayer.play(replay, TestMaps.straightRoadMapWithTowerSlots(), Long.MAX_VALUE, 0);
+        assertTrue(report.inSync());
+        assertEquals(replay.endTick(), report.ticks());
+    }
+
+    /**
+     * Playing on a different map should be reported as a desync.
+     */
+    @Test
+    void divergenceIsDetected() throws IOException {
+        List<ReplayCommand> recorded = new ArrayList<>();
+        ReplayPlayer.Replay replay = ReplayPlayer.read(new ByteArrayInputStream(recordSession(recorded)));
+        GameMap other = new GameMap(new TileEnum[][] {
+                { G, T, T, G, TileEnum.CASTLE_TOP_LEFT, TileEnum.CASTLE_TOP_RIGHT },
+                { H, H, H, H, TileEnum.CASTLE_BOTTOM_LEFT, TileEnum.CASTLE_BOTTOM_RIGHT },
+                { G, G, G, G, G, G }
+        });
+
+        ReplayPlayer.Report report = ReplayPlayer.play(replay, other, Long.MAX_VALUE, 0);
+
+        assertFalse(report.inSync());
+    }
+}
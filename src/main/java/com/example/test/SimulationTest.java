@@ -0,0 +1,280 @@
+package com.example.test;
+
+import com.example.entity.AnimatedEntity;
+import com.example.entity.Entity;
+import com.example.entity.EntityGroup;
+import com.example.entity.EntityRegistry;
+import com.example.entity.GoldBag;
+import com.example.entity.Tower;
+import com.example.game.Simulation;
+import com.example.game.Wave;
+import com.example.map.GameMap;
+import com.example.map.TileEnum;
+import com.example.map.TowerFactory;
+import com.example.player.PlayerState;
+import com.example.utils.FlowField;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the headless {@link Simulation}.
+ * Runs small levels to completion without any JavaFX stage or canvas.
+ */
+class SimulationTest {
+
+    private static final TileEnum G = TileEnum.GRASS;
+    private static final TileEnum H = TileEnum.HORIZONTAL_PATH;
+
+    /**
+     * Undefended enemies should all reach the castle and cost one life each.
+     */
+    @Test
+    void undefendedWaveCostsLives() {
+        EntityRegistry entities = new EntityRegistry();
+        PlayerState state = new PlayerState(100, 10);
+        Simulation sim = new Simulation(TestMaps.straightRoadMap(), entities, state);
+        sim.setWavesFromGroups(List.of(new Wave(new EntityGroup(2, 1, 0))));
+
+        long ticks = sim.runUntilComplete(60 * 120);
+
+        assertTrue(sim.isLevelCompleted());
+        assertEquals(7, state.getLives());
+        assertEquals(1, sim.getCurrentWave());
+        assertEquals(ticks, sim.getTickCount());
+        assertTrue(sim.getEnemies().isEmpty());
+    }
+
+    /**
+     * Stepping a fixed number of ticks advances simulated time by exactly that many ticks.
+     */
+    @Test
+    void stepAdvancesFixedTicks() {
+        Simulation sim = new Simulation(TestMaps.straightRoadMap(), new EntityRegistry(), new PlayerState(100, 10));
+        sim.setWavesFromGroups(List.of(new Wave(new EntityGroup(1, 0, 0))));
+
+        sim.step(60);
+
+        assertEquals(60, sim.getTickCount());
+        assertEquals(1.0, sim.getElapsedSeconds(), 1e-9);
+        assertEquals(0, sim.getCurrentWave());
+        assertThrows(IllegalStateException.class, Simulation::current);
+    }
+
+    /**
+     * Runs with the same seed play out identically, down to the tick and the gold dropped.
+     */
+    @Test
+    void sameSeedIsReproducible() {
+        GameMap map = TestMaps.straightRoadMap();
+        FlowField field = Simulation.buildFlowField(map);
+        long[][] outcomes = new long[2][];
+        for (int run = 0; run < 2; run++) {
+            PlayerState state = new PlayerState(100, 10);
+            Simulation sim = new Simulation(map, field, new EntityRegistry(), state, 42);
+            sim.setAutoCollectGold(true);
+            sim.placeTower(TowerFactory.build(TileEnum.MAGE_TOWER, 1, 0, 2));
+            sim.placeTower(TowerFactory.build(TileEnum.ARCHERY_TOWER, 2, 2, 1));
+            sim.setWavesFromGroups(List.of(new Wave(new EntityGroup(4, 3, 0))));
+            long ticks = sim.runUntilComplete(60 * 300);
+            outcomes[run] = new long[] { ticks, state.getLives(), state.getGold(), sim.getGoldDropped() };
+        }
+        assertArrayEquals(outcomes[0], outcomes[1]);
+    }
+
+    /**
+     * Blocking a road tile sends live enemies around it and they still reach the castle.
+     */
+    @Test
+    void blockedTileReroutesEnemies() {
+        TileEnum[][] tiles = {
+                { H, H, H, H, TileEnum.CASTLE_TOP_LEFT, TileEnum.CASTLE_TOP_RIGHT },
+                { H, H, H, H, TileEnum.CASTLE_BOTTOM_LEFT, TileEnum.CASTLE_BOTTOM_RIGHT }
+        };
+        GameMap map = new GameMap(tiles);
+        PlayerState state = new PlayerState(100, 20);
+        Simulation sim = new Simulation(map, Simulation.buildFlowField(map), new EntityRegistry(), state, 3);
+        for (int i = 0; i < 8; i++) sim.spawnGoblin();
+        sim.step(5);
+
+        Set<AnimatedEntity> inside = new HashSet<>();
+        for (AnimatedEntity e : sim.getEnemies()) {
+            if (inBlockedTile(e)) inside.add(e);
+        }
+        int rerouted = sim.setTileBlocked(2, 1, true);
+
+        assertEquals(8 - inside.size(), rerouted);
+        while (!sim.getEnemies().isEmpty() && sim.getTickCount() < 60 * 60) {
+            sim.tick();
+            for (AnimatedEntity e : sim.getEnemies()) {
+                assertTrue(inside.contains(e) || !inBlockedTile(e));
+            }
+        }
+        assertEquals(12, state.getLives());
+        assertEquals(0, sim.setTileBlocked(0, 5, true));
+    }
+
+    /**
+     * Blocking tiles one after another while wave routes are still being planned never changes
+     * a flow field that earlier planning may still be reading, and the waves still play out.
+     */
+    @Test
+    void repeatedBlockingLeavesPlannedFieldsAlone() {
+        TileEnum[][] tiles = {
+                { H, H, H, H, H, H },
+                { H, H, H, H, TileEnum.CASTLE_TOP_LEFT, TileEnum.CASTLE_TOP_RIGHT },
+                { H, H, H, H, TileEnum.CASTLE_BOTTOM_LEFT, TileEnum.CASTLE_BOTTOM_RIGHT },
+                { H, H, H, H, H, H }
+        };
+        GameMap map = new GameMap(tiles);
+        FlowField shared = Simulation.buildFlowField(map);
+        PlayerState state = new PlayerState(100, 100);
+        Simulation sim = new Simulation(map, shared, new EntityRegistry(), state, 5);
+        sim.setWavesFromGroups(List.of(
+                new Wave(new EntityGroup(10, 5, 0)),
+                new Wave(new EntityGroup(10, 5, 0)),
+                new Wave(new EntityGroup(10, 5, 0))));
+
+        float sharedDistance = shared.getDistance(160, 96);
+        sim.setTileBlocked(2, 1, true);
+        FlowField first = sim.getFlowField();
+        float firstDistance = first.getDistance(160, 160);
+        sim.setTileBlocked(2, 2, true);
+
+        assertNotSame(shared, first);
+        assertNotSame(first, sim.getFlowField());
+        assertEquals(sharedDistance, shared.getDistance(160, 96));
+        assertEquals(firstDistance, first.getDistance(160, 160));
+        assertFalse(Float.isInfinite(firstDistance));
+        assertTrue(Float.isInfinite(sim.getFlowField().getDistance(160, 160)));
+
+        sim.runUntilComplete(60 * 600);
+        assertTrue(sim.isLevelCompleted());
+    }
+
+    /**
+     * Spawn points cut off by a blocked tile are skipped, and the wave still
+     * spawns from the ones that reach the castle.
+     */
+    @Test
+    void cutOffSpawnIsSkipped() {
+        GameMap map = new GameMap(new TileEnum[][] {
+                { H, H, H, H, H, H },
+                { H, H, H, H, TileEnum.CASTLE_TOP_LEFT, TileEnum.CASTLE_TOP_RIGHT },
+                { H, H, H, H, TileEnum.CASTLE_BOTTOM_LEFT, TileEnum.CASTLE_BOTTOM_RIGHT },
+                { H, H, H, H, H, H }
+        });
+        PlayerState state = new PlayerState(100, 20);
+        Simulation sim = new Simulation(map, Simulation.buildFlowField(map), new EntityRegistry(), state, 11);
+        sim.setTileBlocked(0, 1, true);
+        assertTrue(Float.isInfinite(sim.getFlowField().getDistance(0, 96)));
+        sim.setWavesFromGroups(List.of(new Wave(new EntityGroup(6, 4, 0))));
+
+        sim.runUntilComplete(60 * 300);
+
+        assertTrue(sim.isLevelCompleted());
+        assertEquals(10, state.getLives());
+    }
+
+    /**
+     * While every spawn point is cut off, waves are held back and single
+     * spawns do nothing; opening the road again lets the wave through.
+     */
+    @Test
+    void fullyCutOffWaveIsHeld() {
+        // the castle stays off the map edge, so the road is the only way in
+        GameMap map = new GameMap(new TileEnum[][] {
+                { G, G, G, G, TileEnum.CASTLE_TOP_LEFT, TileEnum.CASTLE_TOP_RIGHT, G },
+                { H, H, H, H, TileEnum.CASTLE_BOTTOM_LEFT, TileEnum.CASTLE_BOTTOM_RIGHT, G },
+                { G, G, G, G, G, G, G }
+        });
+        PlayerState state = new PlayerState(100, 10);
+        Simulation sim = new Simulation(map, new EntityRegistry(), state);
+        sim.setTileBlocked(2, 1, true);
+        sim.setWavesFromGroups(List.of(new Wave(new EntityGroup(2, 1, 0))));
+
+        sim.step(60 * 20);
+        sim.spawnGoblin();
+        sim.spawnWarrior();
+
+        assertEquals(0, sim.getCurrentWave());
+        assertTrue(sim.getEnemies().isEmpty());
+
+        sim.setTileBlocked(2, 1, false);
+        sim.runUntilComplete(60 * 120);
+        assertTrue(sim.isLevelCompleted());
+        assertEquals(7, state.getLives());
+    }
+
+    /**
+     * Towers keep targeting the enemy closest to the castle after a reroute,
+     * even though its new path starts where it stood.
+     */
+    @Test
+    void reroutedEnemyStaysFirstTarget() {
+        // the road stub right of the castle is a second spawn edge to toggle
+        GameMap map = new GameMap(new TileEnum[][] {
+                { G, G, G, G, G, G, TileEnum.CASTLE_TOP_LEFT, TileEnum.CASTLE_TOP_RIGHT, G },
+                { H, H, H, H, H, H, TileEnum.CASTLE_BOTTOM_LEFT, TileEnum.CASTLE_BOTTOM_RIGHT, H },
+                { G, G, G, G, G, G, G, G, G }
+        });
+        Simulation sim = new Simulation(map, new EntityRegistry(), new PlayerState(100, 10));
+        sim.setTileBlocked(8, 1, true);
+        sim.spawnGoblin();
+        sim.step(240);
+        AnimatedEntity ahead = sim.getEnemies().getFirst();
+
+        sim.setTileBlocked(8, 1, false);
+        assertEquals(1, sim.setTileBlocked(8, 1, true));
+        sim.spawnGoblin(100, 100);
+        sim.step(60);
+
+        AnimatedEntity behind = sim.getEnemies().get(1);
+        assertTrue(behind.getPathProgress() > ahead.getPathProgress());
+        assertTrue(behind.getX() < ahead.getX());
+        Tower tower = TowerFactory.build(TileEnum.ARCHERY_TOWER, 4, 2, 1);
+        tower.setRange(20);
+        assertSame(ahead, sim.nearestEnemy(tower));
+    }
+
+    private static boolean inBlockedTile(AnimatedEntity e) {
+        return e.getX() >= 128 && e.getX() < 192 && e.getY() >= 64 && e.getY() < 128;
+    }
+
+    /**
+     * The drawing query finds live enemies and towers inside the rectangle,
+     * leaves out those outside it, and swaps an enemy that has died for the
+     * gold bag it dropped.
+     */
+    @Test
+    void rectQueryFindsLiveEntitiesInside() {
+        Simulation sim = new Simulation(TestMaps.straightRoadMap(), new EntityRegistry(), new PlayerState(100, 10));
+        Tower tower = TowerFactory.build(TileEnum.ARCHERY_TOWER, 2, 2, 1);
+        tower.setAttackCooldown(1000);
+        sim.placeTower(tower);
+        sim.spawnGoblin(0, 100);
+        sim.step(1);
+        AnimatedEntity goblin = sim.getEnemies().get(0);
+
+        List<Entity> all = new ArrayList<>();
+        sim.forEachEntityInRect(0, 0, 6 * 64 - 1, 3 * 64 - 1, all::add);
+        assertEquals(Set.of(goblin, tower), new HashSet<>(all));
+
+        List<Entity> bottomLeft = new ArrayList<>();
+        sim.forEachEntityInRect(0, 2 * 64, 64 - 1, 3 * 64 - 1, bottomLeft::add);
+        assertTrue(bottomLeft.isEmpty());
+
+        goblin.applyDamage(100);
+        sim.step(1);
+        List<Entity> afterDeath = new ArrayList<>();
+        sim.forEachEntityInRect(0, 0, 6 * 64 - 1, 3 * 64 - 1, afterDeath::add);
+        assertEquals(2, afterDeath.size());
+        assertTrue(afterDeath.contains(tower));
+        assertTrue(afterDeath.stream().anyMatch(e -> e instanceof GoldBag));
+    }
+}
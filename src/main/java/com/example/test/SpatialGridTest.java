@@ -0,0 +1,124 @@
+package com.example.test;
+
+import com.example.utils.SpatialGrid;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link SpatialGrid}.
+ * Compares grid queries against brute-force scans over the same points.
+ */
+class SpatialGridTest {
+
+    private record Item(int id, double x, double y) {}
+
+    /**
+     * Fills a 10x8 grid of 64-unit cells with random items, some of them outside the grid.
+     *
+     * @param grid the grid to fill
+     * @param rng  random source for positions
+     * @return the inserted items
+     */
+    private static List<Item> fill(SpatialGrid<Item> grid, Random rng) {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Item item = new Item(i, rng.nextDouble() * 700 - 30, rng.nextDouble() * 560 - 30);
+            items.add(item);
+            grid.add(item, item.x(), item.y());
+        }
+        grid.build();
+        return items;
+    }
+
+    /**
+     * Rectangle queries return exactly the items a linear scan would, including ones clamped into border cells.
+     */
+    @Test
+    void forEachInRectMatchesBruteForce() {
+        Random rng = new Random(3);
+        SpatialGrid<Item> grid = new SpatialGrid<>(10, 8, 64);
+        List<Item> items = fill(grid, rng);
+
+        for (int q = 0; q < 50; q++) {
+            double x0 = rng.nextDouble() * 700 - 60, y0 = rng.nextDouble() * 560 - 60;
+            double x1 = x0 + rng.nextDouble() * 300, y1 = y0 + rng.nextDouble() * 300;
+            Set<Item> expected = new HashSet<>();
+            for (Item it : items) {
+                if (it.x() >= x0 && it.x() <= x1 && it.y() >= y0 && it.y() <= y1) expected.add(it);
+            }
+            Set<Item> actual = new HashSet<>();
+            grid.forEachInRect(x0, y0, x1, y1, actual::add);
+            assertEquals(expected, actual);
+        }
+    }
+
+    /**
+     * Radius queries return exactly the items a linear scan would.
+     */
+    @Test
+    void forEachWithinMatchesBruteForce() {
+        Random rng = new Random(1);
+        SpatialGrid<Item> grid = new SpatialGrid<>(10, 8, 64);
+        List<Item> items = fill(grid, rng);
+
+        for (int q = 0; q < 50; q++) {
+            double x = rng.nextDouble() * 640, y = rng.nextDouble() * 512, r = rng.nextDouble() * 200;
+            Set<Item> expected = new HashSet<>();
+            for (Item it : items) {
+                if (Math.hypot(it.x() - x, it.y() - y) <= r) expected.add(it);
+            }
+            Set<Item> actual = new HashSet<>();
+            grid.forEachWithin(x, y, r, actual::add);
+            assertEquals(expected, actual);
+        }
+    }
+
+    /**
+     * Nearest-neighbour queries agree with a linear scan, including filtered ones.
+     */
+    @Test
+    void nearestMatchesBruteForce() {
+        Random rng = new Random(2);
+        SpatialGrid<Item> grid = new SpatialGrid<>(10, 8, 64);
+        List<Item> items = fill(grid, rng);
+
+        for (int q = 0; q < 50; q++) {
+            double x = rng.nextDouble() * 640, y = rng.nextDouble() * 512;
+            Item expected = null;
+            double best = Double.POSITIVE_INFINITY;
+            for (Item it : items) {
+                double d = Math.hypot(it.x() - x, it.y() - y);
+                if (it.id() % 7 == 0 && d < best) {
+                    best = d;
+                    expected = it;
+                }
+            }
+            assertEquals(expected, grid.nearest(x, y, it -> it.id() % 7 == 0));
+        }
+    }
+
+    /**
+     * Clearing and rebuilding the grid forgets the previous contents.
+     */
+    @Test
+    void clearRemovesItems() {
+        SpatialGrid<Item> grid = new SpatialGrid<>(4, 4, 64);
+        grid.add(new Item(0, 10, 10), 10, 10);
+        grid.build();
+        assertEquals(1, grid.size());
+
+        grid.clear();
+        grid.build();
+
+        assertEquals(0, grid.size());
+        assertNull(grid.nearest(10, 10, it -> true));
+        assertNull(grid.maxWithin(10, 10, 100, Item::x));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.test;
+
+import com.example.map.GameMap;
+import com.example.map.TileEnum;
+
+/**
+ * Small maps shared by the headless simulation and path tests.
+ */
+final class TestMaps {
+
+    private static final TileEnum G = TileEnum.GRASS;
+    private static final TileEnum H = TileEnum.HORIZONTAL_PATH;
+    private static final TileEnum T = TileEnum.EMPTY_TOWER_TILE;
+
+    private TestMaps() {}
+
+    /**
+     * Builds a small map with a straight road from the left edge into a castle on the right.
+     *
+     * @return a new map
+     */
+    static GameMap straightRoadMap() {
+        return new GameMap(new TileEnum[][] {
+                { G, G, G, G, TileEnum.CASTLE_TOP_LEFT, TileEnum.CASTLE_TOP_RIGHT },
+                { H, H, H, H, TileEnum.CASTLE_BOTTOM_LEFT, TileEnum.CASTLE_BOTTOM_RIGHT },
+                { G, G, G, G, G, G }
+        });
+    }
+
+    /**
+     * Builds the {@link #straightRoadMap()} layout with empty tower tiles at
+     * (1, 0), (2, 0) and (2, 2) along the road.
+     *
+     * @return a new map
+     */
+    static GameMap straightRoadMapWithTowerSlots() {
+        return new GameMap(new TileEnum[][] {
+                { G, T, T, G, TileEnum.CASTLE_TOP_LEFT, TileEnum.CASTLE_TOP_RIGHT },
+                { H, H, H, H, TileEnum.CASTLE_BOTTOM_LEFT, TileEnum.CASTLE_BOTTOM_RIGHT },
+                { G, G, T, G, G, G }
+        });
+    }
+}
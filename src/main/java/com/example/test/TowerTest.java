@@ -0,0 +1,73 @@
+package com.example.test;
+
+import com.example.entity.EntityPool;
+import com.example.entity.EntityRegistry;
+import com.example.entity.Projectile;
+import com.example.entity.Tower;
+import com.example.game.Simulation;
+import com.example.map.TileEnum;
+import com.example.map.TowerFactory;
+import com.example.player.PlayerState;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link Tower}.
+ * Counts the shots a tower fires at a stationary enemy in a headless simulation.
+ */
+class TowerTest {
+
+    // 6.6 ticks, so a cooldown that restarted on a tick boundary would lose time on every shot
+    private static final double COOLDOWN = 0.11;
+
+    private static Simulation simulationWithTower() {
+        Simulation sim = new Simulation(TestMaps.straightRoadMap(), new EntityRegistry(), new PlayerState(100, 10));
+        Tower tower = TowerFactory.build(TileEnum.ARCHERY_TOWER, 2, 2, 1);
+        tower.setRange(10);
+        tower.setAttackCooldown(COOLDOWN);
+        sim.placeTower(tower);
+        return sim;
+    }
+
+    private static long shotsFired(Simulation sim) {
+        EntityPool<Projectile> pool = sim.getProjectilePool();
+        return pool.getHits() + pool.getMisses();
+    }
+
+    /**
+     * One second of game time is 60 ticks at 1x and 16 seconds are 960 ticks
+     * at 16x. Both should fire once per cooldown, to within the shot in progress.
+     */
+    @Test
+    void fireRateMatchesAtOneAndSixteenTimesSpeed() {
+        for (int speed : new int[] { 1, 16 }) {
+            Simulation sim = simulationWithTower();
+            sim.spawnGoblin(0, 1_000_000);
+
+            int ticks = 60 * speed;
+            sim.step(ticks);
+
+            double expected = ticks * Simulation.TICK_SECONDS / COOLDOWN;
+            assertEquals(expected, shotsFired(sim), 1.0, "shots at " + speed + "x");
+        }
+    }
+
+    /**
+     * A tower with nothing to shoot at stays ready but does not save up
+     * shots to fire in a burst once an enemy appears.
+     */
+    @Test
+    void idleTowerDoesNotBankShots() {
+        Simulation sim = simulationWithTower();
+        sim.step(600);
+        assertEquals(0, shotsFired(sim));
+
+        sim.spawnGoblin(0, 1_000_000);
+        sim.step(1);
+        assertEquals(1, shotsFired(sim));
+
+        sim.step(59);
+        assertEquals(1 + 59 * Simulation.TICK_SECONDS / COOLDOWN, shotsFired(sim), 1.0);
+    }
+}
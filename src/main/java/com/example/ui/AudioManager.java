@@ -17,6 +17,7 @@ import java.util.Random;
 public class AudioManager {
     private static MediaPlayer backgroundPlayer;
     private static final Map<String, AudioClip> clipCache = new HashMap<>();
+    private static final Random RANDOM = new Random();
     private static int musicVolume;
     private static int sfxVolume;
 
@@ -72,7 +73,7 @@ public class AudioManager {
      */
     public static void playRandomSoundEffect(String... paths) {
         if (paths == null || paths.length == 0) return;
-        int idx = new Random().nextInt(paths.length);
+        int idx = RANDOM.nextInt(paths.length);
         playSoundEffect(paths[idx]);
     }
 
@@ -0,0 +1,202 @@
+package com.example.ui;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.transform.Affine;
+
+/**
+ * Maps the game world onto the on-screen viewport. The camera holds the world
+ * position of the viewport's top-left corner and a zoom factor, keeps the view
+ * inside the world while panning and zooming, and tells renderers which part
+ * of the world is visible so that everything outside it can be skipped.
+ * <p>
+ * When the world is smaller than the viewport at the current zoom it is
+ * centred on that axis instead of being pinned to the top-left corner.
+ */
+public class Camera
+{
+	/** Closest the camera zooms in. */
+	public static final double MAX_ZOOM = 2.0;
+	/** Furthest the camera zooms out, even on maps that would still not fit. */
+	public static final double MIN_ZOOM = 0.25;
+
+	private final double worldWidth, worldHeight;
+	private double viewWidth, viewHeight;
+	private double x, y;
+	private double zoom = 1.0;
+
+	/**
+	 * Creates a camera at the top-left corner of the world at zoom 1, with a
+	 * viewport as large as the world.
+	 *
+	 * @param worldWidth  width of the world in pixels
+	 * @param worldHeight height of the world in pixels
+	 */
+	public Camera(double worldWidth, double worldHeight)
+	{
+		this.worldWidth = worldWidth;
+		this.worldHeight = worldHeight;
+		this.viewWidth = worldWidth;
+		this.viewHeight = worldHeight;
+	}
+
+	/**
+	 * Sets the size of the on-screen viewport, keeping the world point at its
+	 * top-left corner where possible.
+	 *
+	 * @param width  viewport width in screen pixels
+	 * @param height viewport height in screen pixels
+	 */
+	public void setViewport(double width, double height)
+	{
+		viewWidth = Math.max(1, width);
+		viewHeight = Math.max(1, height);
+		zoom = clampZoom(zoom);
+		clamp();
+	}
+
+	/**
+	 * Moves the view by a distance measured on screen, e.g. a mouse drag.
+	 *
+	 * @param screenDx horizontal distance in screen pixels
+	 * @param screenDy vertical distance in screen pixels
+	 */
+	public void pan(double screenDx, double screenDy)
+	{
+		x += screenDx / zoom;
+		y += screenDy / zoom;
+		clamp();
+	}
+
+	/**
+	 * Zooms by a factor while keeping the world point under the given screen
+	 * position in place, so zooming follows the mouse.
+	 *
+	 * @param factor  zoom multiplier; above 1 zooms in
+	 * @param screenX x of the fixed point in viewport coordinates
+	 * @param screenY y of the fixed point in viewport coordinates
+	 */
+	public void zoomAt(double factor, double screenX, double screenY)
+	{
+		double worldX = toWorldX(screenX);
+		double worldY = toWorldY(screenY);
+		zoom = clampZoom(zoom * factor);
+		x = worldX - screenX / zoom;
+		y = worldY - screenY / zoom;
+		clamp();
+	}
+
+	/**
+	 * Centres the view on a world point.
+	 *
+	 * @param worldX x coordinate in world pixels
+	 * @param worldY y coordinate in world pixels
+	 */
+	public void centerOn(double worldX, double worldY)
+	{
+		x = worldX - viewWidth / zoom / 2;
+		y = worldY - viewHeight / zoom / 2;
+		clamp();
+	}
+
+	/** Zoom out far enough to see the whole world, but never below {@link #MIN_ZOOM}. */
+	private double minZoom()
+	{
+		double fit = Math.min(viewWidth / worldWidth, viewHeight / worldHeight);
+		return Math.max(MIN_ZOOM, Math.min(1.0, fit));
+	}
+
+	private double clampZoom(double z)
+	{
+		return Math.max(minZoom(), Math.min(MAX_ZOOM, z));
+	}
+
+	private void clamp()
+	{
+		double w = viewWidth / zoom, h = viewHeight / zoom;
+		x = w >= worldWidth ? (worldWidth - w) / 2 : Math.max(0, Math.min(worldWidth - w, x));
+		y = h >= worldHeight ? (worldHeight - h) / 2 : Math.max(0, Math.min(worldHeight - h, y));
+	}
+
+	/** Converts a viewport x coordinate to a world x coordinate. */
+	public double toWorldX(double screenX)
+	{
+		return x + screenX / zoom;
+	}
+
+	/** Converts a viewport y coordinate to a world y coordinate. */
+	public double toWorldY(double screenY)
+	{
+		return y + screenY / zoom;
+	}
+
+	/** Returns the world x coordinate at the left edge of the viewport. */
+	public double getMinX()
+	{
+		return x;
+	}
+
+	/** Returns the world y coordinate at the top edge of the viewport. */
+	public double getMinY()
+	{
+		return y;
+	}
+
+	/** Returns the world x coordinate at the right edge of the viewport. */
+	public double getMaxX()
+	{
+		return x + viewWidth / zoom;
+	}
+
+	/** Returns the world y coordinate at the bottom edge of the viewport. */
+	public double getMaxY()
+	{
+		return y + viewHeight / zoom;
+	}
+
+	public double getZoom()
+	{
+		return zoom;
+	}
+
+	public double getViewWidth()
+	{
+		return viewWidth;
+	}
+
+	public double getViewHeight()
+	{
+		return viewHeight;
+	}
+
+	/**
+	 * Returns whether anything within {@code margin} world pixels of the
+	 * given point can be seen.
+	 */
+	public boolean isVisible(double worldX, double worldY, double margin)
+	{
+		return worldX + margin >= getMinX() && worldX - margin <= getMaxX()
+				&& worldY + margin >= getMinY() && worldY - margin <= getMaxY();
+	}
+
+	/**
+	 * Replaces the transform of a graphics context with the world-to-viewport
+	 * transform, so that it can be drawn to in world coordinates.
+	 *
+	 * @param gc the graphics context
+	 */
+	public void apply(GraphicsContext gc)
+	{
+		gc.setTransform(zoom, 0, 0, zoom, -x * zoom, -y * zoom);
+	}
+
+	/**
+	 * Sets a node transform to the world-to-viewport transform, for scene
+	 * graph overlays that are laid out in world coordinates.
+	 *
+	 * @param transform the transform to overwrite
+	 */
+	public void apply(Affine transform)
+	{
+		transform.setToTransform(zoom, 0, -x * zoom, 0, zoom, -y * zoom);
+	}
+}
@@ -1,14 +1,35 @@
 package com.example.ui;
 
 import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
 import java.util.HashMap;
 
 /**
  * A utility class for loading and caching images.
+ * Filtered variants of loaded images, such as tinted copies, are cached as well,
+ * so that each variant is computed once no matter how many entities draw it.
  */
 public class ImageLoader
 {
+	/** Per-pixel filters a variant of an image can be made with. */
+	public enum Filter
+	{
+		/** Multiplies every channel by a tint color. */
+		TINT,
+		/** Replaces the color by its luminance. */
+		GREYSCALE,
+		/** Paints every visible pixel white, e.g. for a hit flash. */
+		FLASH
+	}
+
+	private record Variant(Image source, Filter filter, Color tint) {}
+
 	private static HashMap<String, Image> cache;
+	private static HashMap<Variant, Image> variants;
 
 	/**
 	 * Retrieves an image from the specified path. If the image has already been loaded,
@@ -33,4 +54,99 @@ public class ImageLoader
 			}
 		});
 	}
+
+	/**
+	 * Retrieves a copy of an image with every channel multiplied by a tint color.
+	 *
+	 * @param source The image to tint.
+	 * @param tint The color tint to apply.
+	 * @return The tinted image, shared with every other caller asking for the same tint.
+	 */
+	public static Image getTinted(Image source, Color tint)
+	{
+		return getVariant(source, Filter.TINT, tint);
+	}
+
+	/**
+	 * Retrieves a greyscale copy of an image.
+	 *
+	 * @param source The image to convert.
+	 * @return The greyscale image, shared with every other caller.
+	 */
+	public static Image getGreyscale(Image source)
+	{
+		return getVariant(source, Filter.GREYSCALE, null);
+	}
+
+	/**
+	 * Retrieves a white silhouette of an image that keeps its transparency.
+	 *
+	 * @param source The image to convert.
+	 * @return The flash image, shared with every other caller.
+	 */
+	public static Image getFlash(Image source)
+	{
+		return getVariant(source, Filter.FLASH, null);
+	}
+
+	/**
+	 * Retrieves a filtered copy of an image. If the variant has already been made,
+	 * it is retrieved from the cache; otherwise, it is computed and added to the cache.
+	 * Variants are keyed by the identity of the source image, so sources should come
+	 * from {@link #getImage(String)} or another cache.
+	 *
+	 * @param source The image to filter.
+	 * @param filter The filter to apply.
+	 * @param tint The tint color for {@link Filter#TINT}; ignored by the other filters.
+	 * @return The filtered image, or null if the source is null.
+	 */
+	public static Image getVariant(Image source, Filter filter, Color tint)
+	{
+		if (source == null) return null;
+		if (variants == null) variants = new HashMap<>();
+
+		Variant key = new Variant(source, filter, filter == Filter.TINT ? tint : null);
+		return variants.computeIfAbsent(key, ImageLoader::makeVariant);
+	}
+
+	private static Image makeVariant(Variant key)
+	{
+		Image src = key.source();
+		int w = (int) src.getWidth();
+		int h = (int) src.getHeight();
+		WritableImage out = new WritableImage(w, h);
+		PixelReader pr = src.getPixelReader();
+		PixelWriter pw = out.getPixelWriter();
+		for (int y = 0; y < h; y++)
+		{
+			for (int x = 0; x < w; x++)
+			{
+				pw.setArgb(x, y, filter(pr.getArgb(x, y), key.filter(), key.tint()));
+			}
+		}
+		return out;
+	}
+
+	private static int filter(int argb, Filter filter, Color tint)
+	{
+		int a = (argb >> 24) & 0xFF;
+		int r = (argb >> 16) & 0xFF;
+		int g = (argb >> 8) & 0xFF;
+		int b = argb & 0xFF;
+		switch (filter)
+		{
+			case TINT ->
+			{
+				r = (int) Math.min(255, r * tint.getRed());
+				g = (int) Math.min(255, g * tint.getGreen());
+				b = (int) Math.min(255, b * tint.getBlue());
+			}
+			case GREYSCALE ->
+			{
+				r = g = b = (int) Math.round(0.299 * r + 0.587 * g + 0.114 * b);
+			}
+			case FLASH -> r = g = b = 255;
+		}
+		return (a << 24) | (r << 16) | (g << 8) | b;
+	}
 }
@@ -0,0 +1,266 @@
+package com.example.ui;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.transform.Affine;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * A per-frame buffer of draw commands. Entities append sprites and filled
+ * shapes to the queue instead of drawing straight to the canvas; the queue is
+ * then sorted by layer and by image or paint, and flushed to the
+ * {@link GraphicsContext} in one pass. Sprites sharing an image are drawn
+ * back to back, fills only change the fill paint when it actually differs,
+ * and rotated sprites set the transform directly instead of going through
+ * {@code save}/{@code restore}.
+ * <p>
+ * Commands are kept in parallel arrays that grow as needed and are reused
+ * from frame to frame, so a frame that draws no more than the previous one
+ * allocates nothing. Within a layer, commands with the same image or paint
+ * keep the order they were added in.
+ */
+public class RenderQueue
+{
+	/** Towers and other fixed entities. */
+	public static final int LAYER_GROUND = 0;
+	/** Enemies and pickups. */
+	public static final int LAYER_UNITS = 1;
+	/** Projectiles in flight. */
+	public static final int LAYER_PROJECTILES = 2;
+	/** Explosions and other short-lived effects. */
+	public static final int LAYER_EFFECTS = 3;
+	/** Health bars and status icons, above everything else. */
+	public static final int LAYER_OVERLAY = 4;
+
+	/** Background of an enemy health bar. */
+	public static final Color HEALTH_BACK = Color.web("#330000");
+	/** Filled part of an enemy health bar. */
+	public static final Color HEALTH_FILL = Color.web("#33cc33");
+
+	private static final byte IMAGE = 0;
+	private static final byte ROTATED = 1;
+	private static final byte ROUND_RECT = 2;
+
+	// Sort key: layer, command kind, resource id, then insertion order
+	private static final int ORDER_BITS = 24;
+	private static final int RESOURCE_BITS = 24;
+	private static final long ORDER_MASK = (1L << ORDER_BITS) - 1;
+	// Ids only order one frame, so they can be handed out afresh once this many accumulate
+	private static final int MAX_RESOURCE_IDS = 4096;
+
+	private byte[] kind = new byte[256];
+	private Object[] resource = new Object[256];
+	private double[] x = new double[256];
+	private double[] y = new double[256];
+	private double[] a = new double[256];
+	private double[] b = new double[256];
+	private double[] c = new double[256];
+	private long[] keys = new long[256];
+	private int size;
+
+	private final IdentityHashMap<Object, Integer> resourceIds = new IdentityHashMap<>();
+	private final Affine base = new Affine();
+
+	/**
+	 * Queues an image drawn at the given position and size.
+	 *
+	 * @param layer  layer to draw on
+	 * @param image  image to draw
+	 * @param x      left edge
+	 * @param y      top edge
+	 * @param width  drawn width
+	 * @param height drawn height
+	 */
+	public void drawImage(int layer, Image image, double x, double y, double width, double height)
+	{
+		if (image == null) return;
+		int i = add(layer, IMAGE, image);
+		this.x[i] = x;
+		this.y[i] = y;
+		a[i] = width;
+		b[i] = height;
+	}
+
+	/**
+	 * Queues an image at its natural size.
+	 *
+	 * @param layer layer to draw on
+	 * @param image image to draw
+	 * @param x     left edge
+	 * @param y     top edge
+	 */
+	public void drawImage(int layer, Image image, double x, double y)
+	{
+		if (image == null) return;
+		drawImage(layer, image, x, y, image.getWidth(), image.getHeight());
+	}
+
+	/**
+	 * Queues an image centred on a point, rotated and scaled about it.
+	 *
+	 * @param layer   layer to draw on
+	 * @param image   image to draw
+	 * @param centerX x coordinate of the image centre
+	 * @param centerY y coordinate of the image centre
+	 * @param degrees clockwise rotation in degrees
+	 * @param scale   uniform scale factor
+	 */
+	public void drawRotated(int layer, Image image, double centerX, double centerY, double degrees, double scale)
+	{
+		if (image == null) return;
+		int i = add(layer, ROTATED, image);
+		x[i] = centerX;
+		y[i] = centerY;
+		a[i] = degrees;
+		b[i] = scale;
+	}
+
+	/**
+	 * Queues a filled rectangle with rounded corners.
+	 *
+	 * @param layer  layer to draw on
+	 * @param paint  fill paint; use a shared constant so that fills batch
+	 * @param x      left edge
+	 * @param y      top edge
+	 * @param width  width
+	 * @param height height
+	 * @param arc    corner arc width and height
+	 */
+	public void fillRoundRect(int layer, Paint paint, double x, double y, double width, double height, double arc)
+	{
+		int i = add(layer, ROUND_RECT, paint);
+		this.x[i] = x;
+		this.y[i] = y;
+		a[i] = width;
+		b[i] = height;
+		c[i] = arc;
+	}
+
+	/** Returns the number of queued commands. */
+	public int size()
+	{
+		return size;
+	}
+
+	/** Drops every queued command without drawing it. */
+	public void clear()
+	{
+		Arrays.fill(resource, 0, size, null);
+		size = 0;
+		if (resourceIds.size() > MAX_RESOURCE_IDS) resourceIds.clear();
+	}
+
+	/**
+	 * Draws every queued command in layer order and clears the queue. The
+	 * transform already set on the context is kept, so the queue can be
+	 * drawn through a camera.
+	 *
+	 * @param gc the context to draw to
+	 */
+	public void flush(GraphicsContext gc)
+	{
+		Arrays.sort(keys, 0, size);
+		gc.getTransform(base);
+		Paint fill = null;
+		boolean transformed = false;
+
+		for (int k = 0; k < size; k++)
+		{
+			int i = (int) (keys[k] & ORDER_MASK);
+			switch (kind[i])
+			{
+				case IMAGE ->
+				{
+					if (transformed)
+					{
+						gc.setTransform(base);
+						transformed = false;
+					}
+					gc.drawImage((Image) resource[i], x[i], y[i], a[i], b[i]);
+				}
+				case ROTATED ->
+				{
+					Image image = (Image) resource[i];
+					setLocalTransform(gc, x[i], y[i], a[i], b[i]);
+					transformed = true;
+					gc.drawImage(image, -image.getWidth() / 2, -image.getHeight() / 2);
+				}
+				case ROUND_RECT ->
+				{
+					if (transformed)
+					{
+						gc.setTransform(base);
+						transformed = false;
+					}
+					Paint paint = (Paint) resource[i];
+					if (paint != fill)
+					{
+						gc.setFill(paint);
+						fill = paint;
+					}
+					gc.fillRoundRect(x[i], y[i], a[i], b[i], c[i], c[i]);
+				}
+				default -> throw new IllegalStateException("Unknown render command " + kind[i]);
+			}
+		}
+		if (transformed) gc.setTransform(base);
+		clear();
+	}
+
+	/** Sets the base transform followed by a translation, rotation and scale. */
+	private void setLocalTransform(GraphicsContext gc, double tx, double ty, double degrees, double scale)
+	{
+		double rad = Math.toRadians(degrees);
+		double cos = Math.cos(rad) * scale;
+		double sin = Math.sin(rad) * scale;
+		gc.setTransform(
+				base.getMxx() * cos + base.getMxy() * sin,
+				base.getMyx() * cos + base.getMyy() * sin,
+				base.getMxy() * cos - base.getMxx() * sin,
+				base.getMyy() * cos - base.getMyx() * sin,
+				base.getMxx() * tx + base.getMxy() * ty + base.getTx(),
+				base.getMyx() * tx + base.getMyy() * ty + base.getTy());
+	}
+
+	private int add(int layer, byte kind, Object resource)
+	{
+		if (size == keys.length) grow();
+		int i = size++;
+		this.kind[i] = kind;
+		this.resource[i] = resource;
+		keys[i] = ((long) layer << (ORDER_BITS + RESOURCE_BITS + 2))
+				| ((long) kind << (ORDER_BITS + RESOURCE_BITS))
+				| ((long) resourceId(resource) << ORDER_BITS)
+				| i;
+		return i;
+	}
+
+	private int resourceId(Object resource)
+	{
+		Integer id = resourceIds.get(resource);
+		if (id == null)
+		{
+			id = resourceIds.size();
+			resourceIds.put(resource, id);
+		}
+		return id;
+	}
+
+	private void grow()
+	{
+		int n = keys.length * 2;
+		if (n > ORDER_MASK + 1) throw new IllegalStateException("Too many render commands in one frame");
+		kind = Arrays.copyOf(kind, n);
+		resource = Arrays.copyOf(resource, n);
+		x = Arrays.copyOf(x, n);
+		y = Arrays.copyOf(y, n);
+		a = Arrays.copyOf(a, n);
+		b = Arrays.copyOf(b, n);
+		c = Arrays.copyOf(c, n);
+		keys = Arrays.copyOf(keys, n);
+	}
+}
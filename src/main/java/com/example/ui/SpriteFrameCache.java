@@ -0,0 +1,73 @@
+package com.example.ui;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.util.HashMap;
+
+/**
+ * A utility class for slicing sprite sheets into animation frames and caching them.
+ * Frames are sliced and scaled once per sheet, frame size, frame count and scale,
+ * and the same array is shared by every entity that animates with them.
+ */
+public class SpriteFrameCache
+{
+	private record Key(String sheet, int frameSize, int frameCount, double scale) {}
+
+	private static HashMap<Key, Image[]> cache;
+
+	/**
+	 * Retrieves the frames of a horizontal sprite sheet. If they have already been built,
+	 * they are retrieved from the cache; otherwise, the sheet is sliced, each frame is
+	 * scaled, and the result is added to the cache.
+	 * <p>
+	 * Scaling renders to a canvas snapshot and must therefore run on the FX thread.
+	 * The returned array is shared and must not be modified.
+	 *
+	 * @param sheet      The resource path of the sprite sheet.
+	 * @param frameSize  The width and height of each frame in the sheet, in pixels.
+	 * @param frameCount The number of frames in the sheet.
+	 * @param scale      The factor the frames are scaled by; 1 keeps them unscaled.
+	 * @return The animation frames.
+	 */
+	public static Image[] getFrames(String sheet, int frameSize, int frameCount, double scale)
+	{
+		if (cache == null) cache = new HashMap<>();
+
+		return cache.computeIfAbsent(new Key(sheet, frameSize, frameCount, scale), k -> {
+			Image source = ImageLoader.getImage(sheet);
+			Image[] frames = new Image[frameCount];
+			for (int i = 0; i < frameCount; i++)
+			{
+				Image raw = new WritableImage(source.getPixelReader(), i * frameSize, 0, frameSize, frameSize);
+				frames[i] = scale == 1.0 ? raw : scaleImage(raw, frameSize * scale, frameSize * scale);
+			}
+			return frames;
+		});
+	}
+
+	/**
+	 * Scales an image to the specified width and height.
+	 *
+	 * @param src          The source image to be scaled.
+	 * @param targetWidth  The desired width of the scaled image.
+	 * @param targetHeight The desired height of the scaled image.
+	 * @return The scaled image.
+	 */
+	private static Image scaleImage(Image src, double targetWidth, double targetHeight)
+	{
+		Canvas tempCanvas = new Canvas(targetWidth, targetHeight);
+		GraphicsContext gc = tempCanvas.getGraphicsContext2D();
+		gc.clearRect(0, 0, targetWidth, targetHeight);
+		gc.drawImage(src, 0, 0, targetWidth, targetHeight);
+
+		SnapshotParameters params = new SnapshotParameters();
+		params.setFill(Color.TRANSPARENT);
+
+		return tempCanvas.snapshot(params, null);
+	}
+}
@@ -0,0 +1,124 @@
+package com.example.ui;
+
+import com.example.map.TileEnum;
+import com.example.utils.TileRenderer;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+/**
+ * The map tiles, pre-rendered into square chunk images. Drawing the map
+ * through a {@link Camera} then takes one image per visible chunk instead of
+ * one per tile, and no image larger than a chunk is ever allocated, so maps
+ * far bigger than the largest texture the GPU accepts still work. Chunks are
+ * baked on first sight; a tile that changes is copied straight into its
+ * chunk.
+ */
+public class StaticMapLayer
+{
+	// 16 tiles of 64 px keeps a chunk at 1024 px square
+	private static final int CHUNK_TILES = 16;
+
+	private final TileRenderer renderer;
+	private final TileEnum[][] types;
+	private final int tileSize;
+	private final int rows, cols;
+	private final int chunkRows, chunkCols;
+	private final WritableImage[] chunks;
+
+	/**
+	 * Creates the layer. Nothing is baked until the chunks are first drawn.
+	 *
+	 * @param renderer renderer providing the tile images
+	 * @param types    tile types indexed by row then column; copied
+	 * @param tileSize size of a tile in pixels
+	 */
+	public StaticMapLayer(TileRenderer renderer, TileEnum[][] types, int tileSize)
+	{
+		this.renderer = renderer;
+		this.tileSize = tileSize;
+		this.rows = types.length;
+		this.cols = rows == 0 ? 0 : types[0].length;
+		this.types = new TileEnum[rows][];
+		for (int r = 0; r < rows; r++)
+		{
+			this.types[r] = types[r].clone();
+		}
+		this.chunkRows = (rows + CHUNK_TILES - 1) / CHUNK_TILES;
+		this.chunkCols = (cols + CHUNK_TILES - 1) / CHUNK_TILES;
+		this.chunks = new WritableImage[chunkRows * chunkCols];
+	}
+
+	/**
+	 * Changes the type of one tile and updates its chunk if it is baked.
+	 *
+	 * @param x    tile column
+	 * @param y    tile row
+	 * @param type new tile type
+	 */
+	public void setTile(int x, int y, TileEnum type)
+	{
+		types[y][x] = type;
+		WritableImage chunk = chunks[(y / CHUNK_TILES) * chunkCols + x / CHUNK_TILES];
+		if (chunk != null)
+		{
+			writeTile(chunk.getPixelWriter(), x, y);
+		}
+	}
+
+	/**
+	 * Clears the context and draws the chunks visible through the camera,
+	 * baking any that have not been drawn before.
+	 *
+	 * @param gc     the context to draw to, sized to the camera's viewport
+	 * @param camera the camera
+	 */
+	public void draw(GraphicsContext gc, Camera camera)
+	{
+		gc.setTransform(1, 0, 0, 1, 0, 0);
+		gc.clearRect(0, 0, camera.getViewWidth(), camera.getViewHeight());
+		camera.apply(gc);
+
+		int chunkSize = CHUNK_TILES * tileSize;
+		int minCx = Math.max(0, (int) Math.floor(camera.getMinX() / chunkSize));
+		int minCy = Math.max(0, (int) Math.floor(camera.getMinY() / chunkSize));
+		int maxCx = Math.min(chunkCols - 1, (int) Math.floor(camera.getMaxX() / chunkSize));
+		int maxCy = Math.min(chunkRows - 1, (int) Math.floor(camera.getMaxY() / chunkSize));
+		for (int cy = minCy; cy <= maxCy; cy++)
+		{
+			for (int cx = minCx; cx <= maxCx; cx++)
+			{
+				gc.drawImage(chunk(cx, cy), cx * chunkSize, cy * chunkSize);
+			}
+		}
+	}
+
+	private WritableImage chunk(int cx, int cy)
+	{
+		int index = cy * chunkCols + cx;
+		WritableImage chunk = chunks[index];
+		if (chunk != null) return chunk;
+
+		int x0 = cx * CHUNK_TILES, y0 = cy * CHUNK_TILES;
+		int w = Math.min(CHUNK_TILES, cols - x0), h = Math.min(CHUNK_TILES, rows - y0);
+		chunk = new WritableImage(w * tileSize, h * tileSize);
+		PixelWriter pw = chunk.getPixelWriter();
+		for (int y = y0; y < y0 + h; y++)
+		{
+			for (int x = x0; x < x0 + w; x++)
+			{
+				writeTile(pw, x, y);
+			}
+		}
+		chunks[index] = chunk;
+		return chunk;
+	}
+
+	private void writeTile(PixelWriter pw, int x, int y)
+	{
+		Image tile = renderer.getComposite(types[y][x]);
+		pw.setPixels((x % CHUNK_TILES) * tileSize, (y % CHUNK_TILES) * tileSize,
+				tileSize, tileSize, tile.getPixelReader(), 0, 0);
+	}
+}
@@ -0,0 +1,356 @@
+package com.example.utils;
+
+import com.example.map.ExpandedGrid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Distance-to-castle field over a map's expanded grid. The field is solved
+ * once with a reverse Dijkstra search seeded from every goal cell at once,
+ * so each cell holds the distance to its nearest castle and a map with
+ * several castles or spawn edges still takes a single pass. A path
+ * from any spawn point is read off by walking downhill in O(path length),
+ * instead of running a full search per enemy. Each walk takes a slightly
+ * noisy choice between the downhill neighbours so that enemies keep spreading
+ * across the road the way they did with per-spawn searches.
+ * <p>
+ * When cells change walkability mid-game, {@link #setWeight} and
+ * {@link #repair()} bring the field up to date incrementally: only cells
+ * whose route runs through a changed cell, and cells that a change opens a
+ * shorter route to, are searched again, instead of solving the whole grid.
+ * A field may be shared between simulations on the same map, so a
+ * simulation that changes it works on a {@link #copy()}.
+ */
+public class FlowField {
+    private static final int[] DX = { 0, 1, 1, 1, 0, -1, -1, -1 };
+    private static final int[] DY = { -1, -1, 0, 1, 1, 1, 0, -1 };
+
+    private static final int TILE_SIZE    = 64;
+    private static final int PEAK_WEIGHT  = TILE_SIZE / 2;
+    private static final int GOAL_WEIGHT  = PEAK_WEIGHT * 3;
+
+    // Largest extra cost a single noisy step may take over the best one
+    private static final double STEP_NOISE = 5;
+    private static final byte NO_STEP = -1;
+
+    private final int width, height;
+    private ExpandedGrid grid;
+    private boolean ownsGrid;
+    private final BitSet goals;
+    private final float[] dist;
+    private final byte[] next;
+
+    // Cells changed since the last repair, and the repair's search state
+    private int[] changed = new int[0];
+    private int changedCount = 0;
+    private int[] affected;
+    private LongMinHeap queue;
+
+    private FlowField(ExpandedGrid grid, BitSet goals) {
+        this(grid, goals, new float[grid.getWidth() * grid.getHeight()], new byte[grid.getWidth() * grid.getHeight()]);
+    }
+
+    private FlowField(ExpandedGrid grid, BitSet goals, float[] dist, byte[] next) {
+        this.grid = grid;
+        this.goals = goals;
+        this.height = grid.getHeight();
+        this.width = grid.getWidth();
+        this.dist = dist;
+        this.next = next;
+    }
+
+    /**
+     * Solves the field for the given grid and a single castle point.
+     *
+     * @param grid the expanded map grid; positive weights are walkable
+     * @param goal the castle point every path leads to
+     * @return the solved field
+     */
+    public static FlowField build(ExpandedGrid grid, Point goal) {
+        return build(grid, List.of(goal));
+    }
+
+    /**
+     * Solves the field for the given grid and goal cells. Every path leads to
+     * whichever goal cell is nearest to where it starts.
+     *
+     * @param grid  the expanded map grid; positive weights are walkable
+     * @param goals the goal cells of every castle
+     * @return the solved field
+     * @throws IllegalStateException if there are no goal cells
+     */
+    public static FlowField build(ExpandedGrid grid, List<Point> goals) {
+        if (goals.isEmpty()) throw new IllegalStateException("No castle point found");
+        BitSet cells = new BitSet(grid.getWidth() * grid.getHeight());
+        for (Point p : goals) {
+            cells.set(grid.index(p.x(), p.y()));
+        }
+        FlowField field = new FlowField(grid, cells);
+        field.solve();
+        return field;
+    }
+
+    private void solve() {
+        Arrays.fill(dist, Float.POSITIVE_INFINITY);
+        Arrays.fill(next, NO_STEP);
+        LongMinHeap pq = new LongMinHeap(width + height);
+
+        for (int cell = goals.nextSetBit(0); cell >= 0; cell = goals.nextSetBit(cell + 1)) {
+            dist[cell] = 0;
+            pq.push(LongMinHeap.key(0, cell));
+        }
+
+        while (!pq.isEmpty()) {
+            long key = pq.pop();
+            int cell = LongMinHeap.index(key);
+            float d = LongMinHeap.cost(key);
+            if (d > dist[cell]) continue;
+
+            int cx = cell % width, cy = cell / width;
+            int weight = grid.get(cell);
+            for (int dir = 0; dir < 8; dir++) {
+                // neighbour that would step onto this cell
+                int nx = cx - DX[dir], ny = cy - DY[dir];
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+                int n = ny * width + nx;
+                if (grid.get(n) <= 0) continue;
+
+                float nd = d + (float) stepCost(weight, dir);
+                if (nd < dist[n]) {
+                    dist[n] = nd;
+                    next[n] = (byte) dir;
+                    pq.push(LongMinHeap.key(nd, n));
+                }
+            }
+        }
+    }
+
+    /** Cost of stepping onto a cell of the given weight in the given direction. */
+    private static double stepCost(int weight, int dir) {
+        double cost = GOAL_WEIGHT - weight;
+        if (Math.abs(DX[dir]) + Math.abs(DY[dir]) == 2) {
+            cost *= 1.4;
+        }
+        return cost;
+    }
+
+    /**
+     * Creates an independent copy of this field, with its own copy of the
+     * grid, that can be changed without affecting anyone else using this one.
+     *
+     * @return the copy
+     */
+    public FlowField copy() {
+        FlowField copy = new FlowField(grid.copy(), goals, dist.clone(), next.clone());
+        copy.ownsGrid = true;
+        return copy;
+    }
+
+    /**
+     * Changes the weight of a cell. The distances are not updated until
+     * {@link #repair()} is called, so a whole area can be changed first and
+     * repaired in one go.
+     *
+     * @param x      cell column
+     * @param y      cell row
+     * @param weight new weight; zero or less blocks the cell
+     */
+    public void setWeight(int x, int y, int weight) {
+        int cell = y * width + x;
+        if (grid.get(cell) == weight) return;
+        if (!ownsGrid) {
+            grid = grid.copy();
+            ownsGrid = true;
+        }
+        grid.set(cell, weight);
+        if (changedCount == changed.length) {
+            changed = Arrays.copyOf(changed, Math.max(64, changedCount * 2));
+        }
+        changed[changedCount++] = cell;
+    }
+
+    /**
+     * Brings the distances up to date after {@link #setWeight} calls. Every
+     * cell whose solved route steps through a changed cell loses its
+     * distance; those cells are then seeded from their neighbours that kept
+     * theirs, together with the changed cells, and a Dijkstra search from the
+     * seeds settles them again and spreads any shorter routes the change
+     * opened. Cells whose route does not touch the change are never visited
+     * unless they get shorter.
+     *
+     * @return the number of cell distances that were recomputed
+     */
+    public int repair() {
+        if (changedCount == 0) return 0;
+        if (queue == null) {
+            queue = new LongMinHeap();
+            affected = new int[256];
+        }
+        int count = invalidate();
+        for (int i = 0; i < count; i++) {
+            seed(affected[i]);
+        }
+        changedCount = 0;
+
+        int updated = count;
+        while (!queue.isEmpty()) {
+            long key = queue.pop();
+            int cell = LongMinHeap.index(key);
+            float d = LongMinHeap.cost(key);
+            if (d > dist[cell]) continue;
+
+            int cx = cell % width, cy = cell / width;
+            int weight = grid.get(cell);
+            for (int dir = 0; dir < 8; dir++) {
+                int nx = cx - DX[dir], ny = cy - DY[dir];
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+                int n = ny * width + nx;
+                if (grid.get(n) <= 0) continue;
+
+                float nd = d + (float) stepCost(weight, dir);
+                if (nd < dist[n]) {
+                    dist[n] = nd;
+                    next[n] = (byte) dir;
+                    queue.push(LongMinHeap.key(nd, n));
+                    updated++;
+                }
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Clears the distance of every changed cell and of every cell whose
+     * solved route runs through one, walking the route tree upstream.
+     *
+     * @return the number of cells collected in {@code affected}
+     */
+    private int invalidate() {
+        int count = 0;
+        for (int i = 0; i < changedCount; i++) {
+            int cell = changed[i];
+            if (count == affected.length) affected = Arrays.copyOf(affected, count * 2);
+            affected[count++] = cell;
+            dist[cell] = Float.POSITIVE_INFINITY;
+            next[cell] = NO_STEP;
+        }
+        for (int i = 0; i < count; i++) {
+            int cell = affected[i];
+            int cx = cell % width, cy = cell / width;
+            for (int dir = 0; dir < 8; dir++) {
+                int nx = cx - DX[dir], ny = cy - DY[dir];
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+                int n = ny * width + nx;
+                if (next[n] != dir || Float.isInfinite(dist[n])) continue;
+                if (count == affected.length) affected = Arrays.copyOf(affected, count * 2);
+                affected[count++] = n;
+                dist[n] = Float.POSITIVE_INFINITY;
+                next[n] = NO_STEP;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gives a cell the best distance reachable through its neighbours and
+     * queues it for the repair search.
+     */
+    private void seed(int cell) {
+        int cx = cell % width, cy = cell / width;
+        if (goals.get(cell) && grid.get(cell) > 0) {
+            dist[cell] = 0;
+            queue.push(LongMinHeap.key(0, cell));
+            return;
+        }
+        if (grid.get(cell) <= 0) return;
+        for (int dir = 0; dir < 8; dir++) {
+            int nx = cx + DX[dir], ny = cy + DY[dir];
+            if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+            int n = ny * width + nx;
+            if (Float.isInfinite(dist[n])) continue;
+            float d = dist[n] + (float) stepCost(grid.get(n), dir);
+            if (d < dist[cell]) {
+                dist[cell] = d;
+                next[cell] = (byte) dir;
+            }
+        }
+        if (!Float.isInfinite(dist[cell])) {
+            queue.push(LongMinHeap.key(dist[cell], cell));
+        }
+    }
+
+    /**
+     * Returns the cost of the cheapest route from a cell to the castle, or
+     * infinity if the castle cannot be reached from it.
+     */
+    public float getDistance(int x, int y) {
+        return dist[y * width + x];
+    }
+
+    /**
+     * Returns whether the castle can be reached from the given point.
+     */
+    public boolean isReachable(Point p) {
+        return !Float.isInfinite(dist[p.y() * width + p.x()]);
+    }
+
+    /**
+     * Walks the field from the given start point to the castle. At every step
+     * a random amount of up to {@code STEP_NOISE} is added to each downhill
+     * neighbour's remaining cost and the cheapest one is taken; where the
+     * field is flat, the solved direction is followed. Once the walk reaches
+     * a goal cell on the castle's edge it carries straight on into the castle
+     * for a random number of steps, so enemies do not all stop on its rim.
+     *
+     * @param start spawn point of the enemy
+     * @param rng   source of the per-step noise
+     * @return the path from start to the castle, or an empty list if the
+     *         castle cannot be reached
+     */
+    public List<Point> walk(Point start, Random rng) {
+        List<Point> path = new ArrayList<>();
+        if (!isReachable(start)) return path;
+
+        int maxGoalSteps = 20 + rng.nextInt(81);
+        int goalCount = 0;
+        int x = start.x(), y = start.y();
+        int lastDir = -1;
+        path.add(start);
+        while (!goals.get(y * width + x)) {
+            if (grid.get(x, y) == GOAL_WEIGHT && ++goalCount >= maxGoalSteps) return path;
+
+            int cell = y * width + x;
+            float here = dist[cell];
+            int bestDir = -1;
+            double best = Double.POSITIVE_INFINITY;
+            for (int dir = 0; dir < 8; dir++) {
+                int nx = x + DX[dir], ny = y + DY[dir];
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+                float there = dist[ny * width + nx];
+                if (!(there < here)) continue;
+                double cost = there + stepCost(grid.get(nx, ny), dir) + rng.nextDouble() * STEP_NOISE;
+                if (cost < best) {
+                    best = cost;
+                    bestDir = dir;
+                }
+            }
+            if (bestDir < 0) bestDir = next[cell];
+            x += DX[bestDir];
+            y += DY[bestDir];
+            lastDir = bestDir;
+            path.add(new Point(x, y));
+        }
+        while (lastDir >= 0 && ++goalCount < maxGoalSteps) {
+            int nx = x + DX[lastDir], ny = y + DY[lastDir];
+            if (nx < 0 || ny < 0 || nx >= width || ny >= height || grid.get(nx, ny) != GOAL_WEIGHT) break;
+            x = nx;
+            y = ny;
+            path.add(new Point(x, y));
+        }
+        return path;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.utils;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of primitive {@code long} keys. Used as the priority queue
+ * of the grid searches, where a key packs a non-negative cost into the high
+ * 32 bits and a cell index into the low 32 bits, so ordering by key orders by
+ * cost. The backing array only ever grows and {@link #clear()} keeps it, so a
+ * heap reused across searches does not allocate.
+ */
+public class LongMinHeap {
+    private long[] heap;
+    private int size;
+
+    /** Creates an empty heap with a small initial capacity. */
+    public LongMinHeap() {
+        this(256);
+    }
+
+    /**
+     * Creates an empty heap.
+     *
+     * @param capacity initial capacity
+     */
+    public LongMinHeap(int capacity) {
+        this.heap = new long[Math.max(1, capacity)];
+    }
+
+    /**
+     * Packs a cost and a cell index into a heap key.
+     *
+     * @param cost  non-negative cost; larger costs sort later
+     * @param index cell index
+     * @return the packed key
+     */
+    public static long key(float cost, int index) {
+        return ((long) Float.floatToRawIntBits(cost) << 32) | (index & 0xFFFFFFFFL);
+    }
+
+    /** Extracts the cell index from a packed key. */
+    public static int index(long key) {
+        return (int) key;
+    }
+
+    /** Extracts the cost from a packed key. */
+    public static float cost(long key) {
+        return Float.intBitsToFloat((int) (key >>> 32));
+    }
+
+    /** Adds a key to the heap. */
+    public void push(long key) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            long p = heap[parent];
+            if (p <= key) break;
+            heap[i] = p;
+            i = parent;
+        }
+        heap[i] = key;
+    }
+
+    /**
+     * Removes and returns the smallest key.
+     *
+     * @throws IllegalStateException if the heap is empty
+     */
+    public long pop() {
+        if (size == 0) throw new IllegalStateException("Heap is empty");
+        long top = heap[0];
+        long last = heap[--size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            long c = heap[child];
+            int right = child + 1;
+            if (right < size && heap[right] < c) {
+                child = right;
+                c = heap[right];
+            }
+            if (last <= c) break;
+            heap[i] = c;
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Removes all keys but keeps the allocated capacity. */
+    public void clear() {
+        size = 0;
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.utils;
 
+import com.example.map.ExpandedGrid;
+import com.example.map.GameMap;
+
 import java.util.*;
 
 /**
  * Utility class for pathfinding operations on a grid. Provides methods to find paths, spawn points, and goal points.
+ * Enemies are routed by {@link FlowField}; in the game {@code findPath} only backs the debug path overlay.
  */
 public class PathFinder {
     private static final int[] DX = { 0, 1, 1, 1, 0, -1, -1, -1 };
@@ -16,6 +20,9 @@ public class PathFinder {
 
     private static final Random random = new Random();
 
+    // Search buffers reused by every findPath call on the same thread
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
     /**
      * Finds a path from the start point to the goal point on the given grid using a Dijkstra-style algorithm.
      *
@@ -24,85 +31,147 @@ public class PathFinder {
      * @param goal The goal point of the path.
      * @return A list of points representing the path from start to goal, trimmed to limit excessive goal-weight tiles. Returns an empty list if the goal is unreachable.
      */
-    public static List<Point> findPath(int[][] grid, Point start, Point goal) {
-        int h = grid.length, w = grid[0].length;
-        double[][] dist = new double[h][w];
-        Point[][] prev = new Point[h][w];
-        for (int y = 0; y < h; y++) {
-            Arrays.fill(dist[y], Double.POSITIVE_INFINITY);
-        }
-
-        PriorityQueue<Point> pq = new PriorityQueue<>(
-                Comparator.comparingDouble(p -> dist[(int)p.y()][(int)p.x()])
-        );
-        dist[(int)start.y()][(int)start.x()] = 0;
-        pq.add(start);
+    public static List<Point> findPath(ExpandedGrid grid, Point start, Point goal) {
+        return findPath(grid, start, goal, random);
+    }
 
-        while (!pq.isEmpty()) {
-            Point cur = pq.poll();
-            if (cur.equals(goal)) break;
+    /**
+     * Finds a path from the start point to the goal point, drawing the path noise from the given random source.
+     * The search runs on flattened cell indices with a primitive heap and buffers kept per thread, so repeated
+     * searches on the same map allocate nothing but the returned path.
+     *
+     * @param grid The grid representing the map, where positive weights denote traversable tiles and zero or negative weights denote obstacles.
+     * @param start The starting point of the path.
+     * @param goal The goal point of the path.
+     * @param random The random source for the path noise.
+     * @return A list of points representing the path from start to goal, trimmed to limit excessive goal-weight tiles. Returns an empty list if the goal is unreachable.
+     */
+    public static List<Point> findPath(ExpandedGrid grid, Point start, Point goal, Random random) {
+        int h = grid.getHeight(), w = grid.getWidth();
+        Scratch s = SCRATCH.get();
+        s.prepare(w * h);
+        float[] dist = s.dist;
+        int[] prev = s.prev;
+        int[] seen = s.seen;
+        int stamp = s.stamp;
+        LongMinHeap pq = s.heap;
 
-            int cx = (int) cur.x(), cy = (int) cur.y();
-            double baseCost = dist[cy][cx];
+        int startCell = start.y() * w + start.x();
+        int goalCell = goal.y() * w + goal.x();
+        seen[startCell] = stamp;
+        dist[startCell] = 0;
+        prev[startCell] = -1;
+        pq.push(LongMinHeap.key(0, startCell));
 
-            int[] dirs = {0, 1, 2, 3, 4, 5, 6, 7};
-            shuffleArray(dirs);
+        while (!pq.isEmpty()) {
+            long key = pq.pop();
+            int cell = LongMinHeap.index(key);
+            float baseCost = LongMinHeap.cost(key);
+            if (baseCost > dist[cell]) continue;
+            if (cell == goalCell) break;
 
-            for (int i = 0; i < 8; i++) {
-                int dir = dirs[i];
+            int cx = cell % w, cy = cell / w;
+            for (int dir = 0; dir < 8; dir++) {
                 int nx = cx + DX[dir], ny = cy + DY[dir];
                 if (nx < 0 || ny < 0 || nx >= w || ny >= h) continue;
-                int weight = grid[ny][nx];
+                int n = ny * w + nx;
+                int weight = grid.get(n);
                 if (weight <= 0) continue;
 
-                double noise = random.nextDouble() * 5;
-                double stepCost = (GOAL_WEIGHT - weight) + noise;
+                double stepCost = (GOAL_WEIGHT - weight) + random.nextDouble() * 5;
                 if (Math.abs(DX[dir]) + Math.abs(DY[dir]) == 2) {
                     stepCost *= 1.4;
                 }
-                double nd = baseCost + stepCost;
+                float nd = baseCost + (float) stepCost;
 
-                if (nd < dist[ny][nx]) {
-                    dist[ny][nx] = nd;
-                    prev[ny][nx] = cur;
-                    pq.add(new Point(nx, ny));
+                if (seen[n] != stamp || nd < dist[n]) {
+                    seen[n] = stamp;
+                    dist[n] = nd;
+                    prev[n] = cell;
+                    pq.push(LongMinHeap.key(nd, n));
                 }
             }
         }
+        pq.clear();
 
-        List<Point> fullPath = new ArrayList<>();
-        if (prev[(int)goal.y()][(int)goal.x()] != null || start.equals(goal)) {
-            for (Point at = goal; at != null; at = prev[(int)at.y()][(int)at.x()]) {
-                fullPath.add(at);
+        List<Point> path = new ArrayList<>();
+        if (seen[goalCell] == stamp) {
+            for (int at = goalCell; at >= 0; at = prev[at]) {
+                path.add(new Point(at % w, at / w));
             }
-            Collections.reverse(fullPath);
+            Collections.reverse(path);
         }
 
+        // Cut the path short a random number of steps into the castle
         int maxGoalSteps = 20 + random.nextInt(81);
-        List<Point> trimmed = new ArrayList<>();
         int goalCount = 0;
-        for (Point p : fullPath) {
-            trimmed.add(p);
-            if (grid[(int) p.y()][(int) p.x()] == GOAL_WEIGHT) {
-                goalCount++;
-                if (goalCount >= maxGoalSteps) break;
+        for (int i = 0; i < path.size(); i++) {
+            Point p = path.get(i);
+            if (grid.get(p.x(), p.y()) == GOAL_WEIGHT && ++goalCount >= maxGoalSteps) {
+                path.subList(i + 1, path.size()).clear();
+                break;
             }
         }
 
-        return trimmed;
+        return path;
+    }
+
+    /**
+     * Finds a path on the given map's expanded grid.
+     *
+     * @param map The map to search.
+     * @param start The starting point of the path, in expanded grid cells.
+     * @param goal The goal point of the path, in expanded grid cells.
+     * @return A list of points representing the path from start to goal. Returns an empty list if the goal is unreachable.
+     * @see #findPath(GameMap, Point, Point, Random)
+     */
+    public static List<Point> findPath(GameMap map, Point start, Point goal) {
+        return findPath(map, start, goal, random);
     }
 
     /**
-     * Shuffles an integer array in-place using the Fisher-Yates algorithm.
+     * Finds a path on the given map's expanded grid. Starts and goals on
+     * different roads are rejected up front from the map's road components,
+     * without searching the grid.
      *
-     * @param arr The array to shuffle.
+     * @param map The map to search.
+     * @param start The starting point of the path, in expanded grid cells.
+     * @param goal The goal point of the path, in expanded grid cells.
+     * @param random The random source for the path noise.
+     * @return A list of points representing the path from start to goal, trimmed to limit excessive goal-weight tiles. Returns an empty list if the goal is unreachable.
+     */
+    public static List<Point> findPath(GameMap map, Point start, Point goal, Random random) {
+        int startComponent = map.getRoadComponent(start.x() / TILE_SIZE, start.y() / TILE_SIZE);
+        if (startComponent < 0 || startComponent != map.getRoadComponent(goal.x() / TILE_SIZE, goal.y() / TILE_SIZE)) {
+            // Off the road or on a road that never reaches the goal
+            return new ArrayList<>();
+        }
+        return findPath(map.getExpandedGrid(), start, goal, random);
+    }
+
+    /**
+     * Per-thread search buffers, indexed by flattened cell. Instead of being
+     * cleared between searches, a cell's distance and predecessor only count
+     * when its entry in {@code seen} matches the current search's stamp.
      */
-    private static void shuffleArray(int[] arr) {
-        for (int i = arr.length - 1; i > 0; i--) {
-            int j = random.nextInt(i + 1);
-            int tmp = arr[i];
-            arr[i] = arr[j];
-            arr[j] = tmp;
+    private static final class Scratch {
+        float[] dist = new float[0];
+        int[] prev = new int[0];
+        int[] seen = new int[0];
+        int stamp = 0;
+        final LongMinHeap heap = new LongMinHeap();
+
+        void prepare(int cells) {
+            if (dist.length < cells) {
+                dist = new float[cells];
+                prev = new int[cells];
+                seen = new int[cells];
+                stamp = 0;
+            }
+            if (++stamp == 0) {
+                Arrays.fill(seen, 0);
+                stamp = 1;
+            }
         }
     }
 
@@ -113,21 +182,59 @@ public class PathFinder {
      * @return A random spawn point on the grid edges.
      * @throws IllegalStateException If no spawn point is found.
      */
-    public static Point findRandomSpawnPoint(int[][] grid) {
+    public static Point findRandomSpawnPoint(ExpandedGrid grid) {
+        return findRandomSpawnPoint(grid, random);
+    }
+
+    /**
+     * Finds a random spawn point on the edges of the grid marked by {@code SPAWN_WEIGHT},
+     * drawing from the given random source.
+     *
+     * @param grid The grid representing the map.
+     * @param rng The random source to pick the spawn point with.
+     * @return A random spawn point on the grid edges.
+     * @throws IllegalStateException If no spawn point is found.
+     */
+    public static Point findRandomSpawnPoint(ExpandedGrid grid, Random rng) {
         List<Point> candidates = new ArrayList<>();
-        int h = grid.length, w = grid[0].length;
+        int h = grid.getHeight(), w = grid.getWidth();
 
         for (int x = 0; x < w; x++) {
-            if (grid[0][x] == SPAWN_WEIGHT) candidates.add(new Point(x, 0));
-            if (grid[h - 1][x] == SPAWN_WEIGHT) candidates.add(new Point(x, h - 1));
+            if (grid.get(x, 0) == SPAWN_WEIGHT) candidates.add(new Point(x, 0));
+            if (grid.get(x, h - 1) == SPAWN_WEIGHT) candidates.add(new Point(x, h - 1));
         }
         for (int y = 0; y < h; y++) {
-            if (grid[y][0] == SPAWN_WEIGHT) candidates.add(new Point(0, y));
-            if (grid[y][w - 1] == SPAWN_WEIGHT) candidates.add(new Point(w - 1, y));
+            if (grid.get(0, y) == SPAWN_WEIGHT) candidates.add(new Point(0, y));
+            if (grid.get(w - 1, y) == SPAWN_WEIGHT) candidates.add(new Point(w - 1, y));
         }
 
         if (candidates.isEmpty()) throw new IllegalStateException("No spawn point found");
-        return candidates.get(random.nextInt(candidates.size()));
+        return candidates.get(rng.nextInt(candidates.size()));
+    }
+
+    /**
+     * Picks a random spawn point from the map's spawn index.
+     *
+     * @param map The map to spawn on.
+     * @return A random spawn point on the map edges.
+     * @throws IllegalStateException If the map has no spawn point.
+     */
+    public static Point findRandomSpawnPoint(GameMap map) {
+        return findRandomSpawnPoint(map, random);
+    }
+
+    /**
+     * Picks a random spawn point from the map's spawn index without scanning the grid.
+     *
+     * @param map The map to spawn on.
+     * @param rng The random source to pick the spawn point with.
+     * @return A random spawn point on the map edges.
+     * @throws IllegalStateException If the map has no spawn point.
+     */
+    public static Point findRandomSpawnPoint(GameMap map, Random rng) {
+        List<Point> candidates = map.getSpawnPoints();
+        if (candidates.isEmpty()) throw new IllegalStateException("No spawn point found");
+        return candidates.get(rng.nextInt(candidates.size()));
     }
 
     /**
@@ -137,11 +244,11 @@ public class PathFinder {
      * @return The castle goal point.
      * @throws IllegalStateException If no castle point is found.
      */
-    public static Point findCastlePoint(int[][] grid) {
-        int h = grid.length, w = grid[0].length;
+    public static Point findCastlePoint(ExpandedGrid grid) {
+        int h = grid.getHeight(), w = grid.getWidth();
         for (int y = 0; y < h; y++) {
             for (int x = 0; x < w; x++) {
-                if (grid[y][x] == GOAL_WEIGHT) return new Point(x, y);
+                if (grid.get(x, y) == GOAL_WEIGHT) return new Point(x, y);
             }
         }
         throw new IllegalStateException("No castle point found");
@@ -0,0 +1,193 @@
+package com.example.utils;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An enemy route stored as a few polyline vertices with a cumulative
+ * arc-length table. A route read off the flow field has one point per pixel
+ * step; collinear runs and sub-pixel wiggles are dropped when the polyline is
+ * built, so a route across the map keeps a few dozen vertices instead of
+ * hundreds of points. Positions are addressed by the distance travelled from
+ * the start: movement only adds to that distance, and looking up where it
+ * lies is a forward scan from the previous segment or a binary search.
+ * <p>
+ * Instances are immutable and can be shared by every enemy walking the same
+ * route.
+ */
+public final class PathPolyline {
+    // Largest distance in pixels a dropped point may lie from the simplified route
+    private static final double TOLERANCE = 1.0;
+
+    private final float[] xy;
+    private final float[] length;
+
+    private PathPolyline(float[] xy, float[] length) {
+        this.xy = xy;
+        this.length = length;
+    }
+
+    /**
+     * Simplifies a point path into a polyline. The first and last points are
+     * always kept.
+     *
+     * @param points the path, from start to goal
+     * @return the polyline
+     * @throws IllegalArgumentException if the path is empty
+     */
+    public static PathPolyline of(List<Point> points) {
+        int n = points.size();
+        if (n == 0) {
+            throw new IllegalArgumentException("Path is empty");
+        }
+        int[] px = new int[n], py = new int[n];
+        for (int i = 0; i < n; i++) {
+            Point p = points.get(i);
+            px[i] = p.x();
+            py[i] = p.y();
+        }
+
+        boolean[] keep = new boolean[n];
+        keep[0] = keep[n - 1] = true;
+        int kept = n == 1 ? 1 : 2;
+        // Ramer-Douglas-Peucker with an explicit stack of (from, to) ranges
+        int[] stack = new int[64];
+        int top = 0;
+        if (n > 2) {
+            stack[top++] = 0;
+            stack[top++] = n - 1;
+        }
+        while (top > 0) {
+            int to = stack[--top], from = stack[--top];
+            double ax = px[from], ay = py[from];
+            double dx = px[to] - ax, dy = py[to] - ay;
+            double len = Math.hypot(dx, dy);
+            int worst = -1;
+            double worstDist = TOLERANCE;
+            for (int i = from + 1; i < to; i++) {
+                double d = len < 1e-9
+                        ? Math.hypot(px[i] - ax, py[i] - ay)
+                        : Math.abs(dx * (py[i] - ay) - dy * (px[i] - ax)) / len;
+                if (d > worstDist) {
+                    worstDist = d;
+                    worst = i;
+                }
+            }
+            if (worst < 0) continue;
+            keep[worst] = true;
+            kept++;
+            if (top + 4 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            if (worst - from > 1) {
+                stack[top++] = from;
+                stack[top++] = worst;
+            }
+            if (to - worst > 1) {
+                stack[top++] = worst;
+                stack[top++] = to;
+            }
+        }
+
+        float[] xy = new float[kept * 2];
+        float[] length = new float[kept];
+        int v = 0;
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            if (!keep[i]) continue;
+            if (v > 0) {
+                total += Math.hypot(px[i] - xy[2 * v - 2], py[i] - xy[2 * v - 1]);
+            }
+            xy[2 * v] = px[i];
+            xy[2 * v + 1] = py[i];
+            length[v] = (float) total;
+            v++;
+        }
+        return new PathPolyline(xy, length);
+    }
+
+    /** Returns the number of vertices. */
+    public int vertexCount() {
+        return length.length;
+    }
+
+    /** Returns the length of the whole route in pixels. */
+    public double totalLength() {
+        return length[length.length - 1];
+    }
+
+    public double startX() {
+        return xy[0];
+    }
+
+    public double startY() {
+        return xy[1];
+    }
+
+    /**
+     * Finds the segment containing the given distance by binary search.
+     *
+     * @param distance distance from the start; clamped to the route
+     * @return index of the segment's first vertex
+     */
+    public int segmentAt(double distance) {
+        int lo = 0, hi = length.length - 2;
+        if (hi <= 0) return 0;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (length[mid] <= distance) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Finds the segment containing the given distance by scanning forward
+     * from a segment known to start at or before it. An entity moves at most
+     * a few pixels per tick, so this is usually one comparison.
+     *
+     * @param segment  segment the previous distance was found in
+     * @param distance distance from the start, not less than the previous one
+     * @return index of the segment's first vertex
+     */
+    public int advance(int segment, double distance) {
+        int last = length.length - 2;
+        while (segment < last && length[segment + 1] <= distance) {
+            segment++;
+        }
+        return segment;
+    }
+
+    /**
+     * Returns the x coordinate at a distance along the route.
+     *
+     * @param segment  segment containing the distance, from {@link #segmentAt} or {@link #advance}
+     * @param distance distance from the start
+     */
+    public double xAt(int segment, double distance) {
+        return coordinate(segment, distance, 0);
+    }
+
+    /**
+     * Returns the y coordinate at a distance along the route.
+     *
+     * @param segment  segment containing the distance, from {@link #segmentAt} or {@link #advance}
+     * @param distance distance from the start
+     */
+    public double yAt(int segment, double distance) {
+        return coordinate(segment, distance, 1);
+    }
+
+    private double coordinate(int segment, double distance, int axis) {
+        int i = 2 * segment + axis;
+        if (segment + 1 >= length.length) return xy[i];
+        double from = length[segment];
+        double span = length[segment + 1] - from;
+        double t = span > 0 ? (distance - from) / span : 1;
+        t = Math.max(0, Math.min(1, t));
+        return xy[i] + (xy[i + 2] - xy[i]) * t;
+    }
+}
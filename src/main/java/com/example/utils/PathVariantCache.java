@@ -0,0 +1,168 @@
+package com.example.utils;
+
+import com.example.map.GameMap;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed set of noisy routes per spawn point of a map. Enemies only need a
+ * handful of distinct lines per spawn point to spread across the road, so
+ * instead of walking the flow field for every spawn, each spawn point gets
+ * {@code variants} routes that are handed out at random and shared by every
+ * enemy that draws them.
+ * <p>
+ * Variant {@code j} of spawn point {@code s} is always walked with the same
+ * seed, derived from the cache seed and {@code (s, j)} alone, so the cache
+ * returns the same routes whether it was filled up front by {@link #warmUp()},
+ * lazily, or concurrently from several threads. Once the cached routes reach
+ * the memory cap, further variants are still walked but no longer kept.
+ * <p>
+ * Spawn points the flow field cannot lead to the castle, e.g. behind a
+ * blocked tile, are never handed out. If no spawn point reaches the castle,
+ * there is no route to hand out at all.
+ * <p>
+ * A cache belongs to one map and flow field and never changes its routes;
+ * a map or flow field that changes gets a new cache.
+ */
+public class PathVariantCache {
+    /** Routes kept per spawn point unless configured otherwise. */
+    public static final int DEFAULT_VARIANTS = 4;
+    /** Memory the cached routes may take unless configured otherwise, in bytes. */
+    public static final long DEFAULT_MAX_BYTES = 4L << 20;
+
+    // Rough heap size of a polyline: object headers plus both arrays
+    private static final int POLYLINE_OVERHEAD = 64;
+    private static final int BYTES_PER_VERTEX = 12;
+
+    private final GameMap map;
+    private final FlowField flowField;
+    private final int variants;
+    private final long maxBytes;
+    private final long seed;
+    private final List<Point> spawnPoints;
+    // Indices of the spawn points that can reach the castle
+    private final int[] reachable;
+    private final AtomicReferenceArray<PathPolyline> routes;
+    private final AtomicLong bytes = new AtomicLong();
+
+    /**
+     * Creates a cache with the default number of variants and memory cap.
+     *
+     * @param map       map the enemies walk on
+     * @param flowField flow field built for {@code map}
+     * @param seed      seed all variants are derived from
+     */
+    public PathVariantCache(GameMap map, FlowField flowField, long seed) {
+        this(map, flowField, seed, DEFAULT_VARIANTS, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param map       map the enemies walk on
+     * @param flowField flow field built for {@code map}
+     * @param seed      seed all variants are derived from
+     * @param variants  routes per spawn point
+     * @param maxBytes  memory the cached routes may take
+     * @throws IllegalArgumentException if {@code variants} is not positive
+     */
+    public PathVariantCache(GameMap map, FlowField flowField, long seed, int variants, long maxBytes) {
+        if (variants < 1) {
+            throw new IllegalArgumentException("At least one variant per spawn point is required");
+        }
+        this.map = map;
+        this.flowField = flowField;
+        this.seed = seed;
+        this.variants = variants;
+        this.maxBytes = maxBytes;
+        this.spawnPoints = map.getSpawnPoints();
+        int[] open = new int[spawnPoints.size()];
+        int count = 0;
+        for (int i = 0; i < spawnPoints.size(); i++) {
+            if (flowField.isReachable(spawnPoints.get(i))) open[count++] = i;
+        }
+        this.reachable = Arrays.copyOf(open, count);
+        this.routes = new AtomicReferenceArray<>(spawnPoints.size() * variants);
+    }
+
+    /**
+     * Walks every variant of every spawn point that reaches the castle now,
+     * up to the memory cap, so that later lookups do no path work. Meant to
+     * run at level load.
+     */
+    public void warmUp() {
+        for (int i = 0; i < reachable.length * variants && bytes.get() < maxBytes; i++) {
+            get(reachable[i / variants], i % variants);
+        }
+    }
+
+    /**
+     * Picks a random spawn point that reaches the castle and one of its variants.
+     *
+     * @param rng source of the choice
+     * @return the route, or {@code null} if no spawn point reaches the castle
+     * @throws IllegalStateException if the map has no spawn point
+     */
+    public PathPolyline get(Random rng) {
+        if (spawnPoints.isEmpty()) throw new IllegalStateException("No spawn point found");
+        if (reachable.length == 0) return null;
+        int spawn = reachable[rng.nextInt(reachable.length)];
+        return get(spawn, rng.nextInt(variants));
+    }
+
+    /**
+     * Returns one variant of a spawn point's route, walking it if it is not
+     * cached.
+     *
+     * @param spawn   index into {@link GameMap#getSpawnPoints()}
+     * @param variant variant index, below {@link #getVariants()}
+     * @return the route, or {@code null} if the spawn point cannot reach the castle
+     */
+    public PathPolyline get(int spawn, int variant) {
+        int slot = spawn * variants + variant;
+        PathPolyline route = routes.get(slot);
+        if (route != null) return route;
+
+        List<Point> walked = flowField.walk(spawnPoints.get(spawn), new Random(variantSeed(slot)));
+        if (walked.isEmpty()) return null;
+        route = PathPolyline.of(walked);
+        long size = POLYLINE_OVERHEAD + (long) BYTES_PER_VERTEX * route.vertexCount();
+        if (bytes.addAndGet(size) > maxBytes) {
+            bytes.addAndGet(-size);
+            return route;
+        }
+        if (!routes.compareAndSet(slot, null, route)) {
+            // Another thread walked the same variant first; both are identical
+            bytes.addAndGet(-size);
+            return routes.get(slot);
+        }
+        return route;
+    }
+
+    /** SplitMix64 over the cache seed and slot, so every variant has an unrelated seed. */
+    private long variantSeed(int slot) {
+        return RandomStreams.mix(seed + 0x9E3779B97F4A7C15L * (slot + 1));
+    }
+
+    public GameMap getMap() {
+        return map;
+    }
+
+    public int getVariants() {
+        return variants;
+    }
+
+    /** Returns whether any spawn point can reach the castle. */
+    public boolean hasReachableSpawn() {
+        return reachable.length > 0;
+    }
+
+    /** Returns the estimated memory taken by the cached routes, in bytes. */
+    public long getCachedBytes() {
+        return bytes.get();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.utils;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Per-session source of randomness, split into independent streams by
+ * purpose. Every stream is seeded from the session seed and its purpose
+ * alone, so drawing more or fewer numbers from one stream never shifts the
+ * others: a cosmetic roll that only happens when audio is attached cannot
+ * change where enemies walk or what they drop. Two sessions with the same
+ * seed and the same inputs therefore play out identically, whichever thread
+ * or machine runs them.
+ */
+public class RandomStreams {
+    /** What a stream is used for. */
+    public enum Stream {
+        /** Spawn points and path noise. */
+        PATH,
+        /** Gold dropped by enemies. */
+        LOOT,
+        /** Combat rolls such as the mage reset. */
+        COMBAT,
+        /** Choices with no effect on the game state, such as which sound variant plays. */
+        COSMETIC
+    }
+
+    private final long seed;
+    private final Map<Stream, Random> streams = new EnumMap<>(Stream.class);
+
+    /**
+     * Creates the streams for a session.
+     *
+     * @param seed the session seed
+     */
+    public RandomStreams(long seed) {
+        this.seed = seed;
+        for (Stream s : Stream.values()) {
+            streams.put(s, new Random(mix(seed + 0x9E3779B97F4A7C15L * (s.ordinal() + 1))));
+        }
+    }
+
+    /**
+     * Creates streams from a fresh random seed, for sessions that do not need
+     * to be reproduced. The seed can still be read back with {@link #getSeed()}.
+     *
+     * @return the new streams
+     */
+    public static RandomStreams unseeded() {
+        return new RandomStreams(new Random().nextLong());
+    }
+
+    /**
+     * SplitMix64 finaliser; spreads nearby seeds over unrelated states.
+     * Shared with {@link PathVariantCache} for its per-variant seeds.
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns the stream for the given purpose.
+     *
+     * @param stream the purpose
+     * @return the random source of that stream
+     */
+    public Random get(Stream stream) {
+        return streams.get(stream);
+    }
+
+    public Random path() {
+        return streams.get(Stream.PATH);
+    }
+
+    public Random loot() {
+        return streams.get(Stream.LOOT);
+    }
+
+    public Random combat() {
+        return streams.get(Stream.COMBAT);
+    }
+
+    public Random cosmetic() {
+        return streams.get(Stream.COSMETIC);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.utils;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Uniform grid that buckets items by position so that range queries only
+ * visit the cells around the query point. Items are collected with
+ * {@link #add(Object, double, double)} and then laid out cell by cell with
+ * {@link #build()}; the backing arrays are reused between rebuilds so a grid
+ * that is rebuilt every tick does not allocate once it has grown to size.
+ * Positions outside the grid are clamped into the border cells.
+ *
+ * @param <T> type of the stored items
+ */
+public class SpatialGrid<T> {
+    private final int cols, rows;
+    private final double cellSize;
+    private final int[] cellStart;
+    private Object[] pending = new Object[64];
+    private double[] pendingX = new double[64], pendingY = new double[64];
+    private int[] pendingCell = new int[64];
+    private Object[] items = new Object[64];
+    private double[] xs = new double[64], ys = new double[64];
+    private int size = 0;
+
+    /**
+     * Creates an empty grid.
+     *
+     * @param cols     number of cell columns
+     * @param rows     number of cell rows
+     * @param cellSize width and height of a cell in world units
+     */
+    public SpatialGrid(int cols, int rows, double cellSize) {
+        this.cols = Math.max(1, cols);
+        this.rows = Math.max(1, rows);
+        this.cellSize = cellSize;
+        this.cellStart = new int[this.cols * this.rows + 1];
+    }
+
+    /** Removes all items; call {@link #build()} before querying again. */
+    public void clear() {
+        Arrays.fill(pending, 0, size, null);
+        Arrays.fill(items, 0, size, null);
+        Arrays.fill(cellStart, 0);
+        size = 0;
+    }
+
+    /**
+     * Queues an item at the given position. It becomes visible to queries
+     * after the next {@link #build()}.
+     */
+    public void add(T item, double x, double y) {
+        if (size == pending.length) {
+            int cap = size * 2;
+            pending = Arrays.copyOf(pending, cap);
+            pendingX = Arrays.copyOf(pendingX, cap);
+            pendingY = Arrays.copyOf(pendingY, cap);
+            pendingCell = Arrays.copyOf(pendingCell, cap);
+            items = new Object[cap];
+            xs = new double[cap];
+            ys = new double[cap];
+        }
+        pending[size] = item;
+        pendingX[size] = x;
+        pendingY[size] = y;
+        pendingCell[size] = cellX(x) + cellY(y) * cols;
+        size++;
+    }
+
+    /** Sorts the queued items into their cells. */
+    public void build() {
+        Arrays.fill(cellStart, 0);
+        for (int i = 0; i < size; i++) {
+            cellStart[pendingCell[i] + 1]++;
+        }
+        int cells = cols * rows;
+        for (int c = 0; c < cells; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        // scatter using each cell's start as a write cursor
+        for (int i = 0; i < size; i++) {
+            int slot = cellStart[pendingCell[i]]++;
+            items[slot] = pending[i];
+            xs[slot] = pendingX[i];
+            ys[slot] = pendingY[i];
+        }
+        // cursors now sit at the end of their cell; shift them back
+        for (int c = cells; c > 0; c--) {
+            cellStart[c] = cellStart[c - 1];
+        }
+        cellStart[0] = 0;
+    }
+
+    /** Returns the number of items in the grid. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Visits every item whose stored position lies within {@code radius} of
+     * the given point.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachWithin(double x, double y, double radius, Consumer<? super T> action) {
+        double r2 = radius * radius;
+        int minCx = cellX(x - radius), maxCx = cellX(x + radius);
+        int minCy = cellY(y - radius), maxCy = cellY(y + radius);
+        for (int cy = minCy; cy <= maxCy; cy++) {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                int cell = cx + cy * cols;
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    double dx = xs[i] - x, dy = ys[i] - y;
+                    if (dx * dx + dy * dy <= r2) {
+                        action.accept((T) items[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Visits every item whose stored position lies inside the given
+     * rectangle, edges included.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachInRect(double minX, double minY, double maxX, double maxY, Consumer<? super T> action) {
+        int minCx = cellX(minX), maxCx = cellX(maxX);
+        int minCy = cellY(minY), maxCy = cellY(maxY);
+        for (int cy = minCy; cy <= maxCy; cy++) {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                int cell = cx + cy * cols;
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    double px = xs[i], py = ys[i];
+                    if (px >= minX && px <= maxX && py >= minY && py <= maxY) {
+                        action.accept((T) items[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the item within {@code radius} of the given point that has the
+     * highest score, or {@code null} if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public T maxWithin(double x, double y, double radius, ToDoubleFunction<? super T> score) {
+        double r2 = radius * radius;
+        int minCx = cellX(x - radius), maxCx = cellX(x + radius);
+        int minCy = cellY(y - radius), maxCy = cellY(y + radius);
+        T best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int cy = minCy; cy <= maxCy; cy++) {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                int cell = cx + cy * cols;
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    double dx = xs[i] - x, dy = ys[i] - y;
+                    if (dx * dx + dy * dy <= r2) {
+                        T item = (T) items[i];
+                        double s = score.applyAsDouble(item);
+                        if (best == null || s > bestScore) {
+                            best = item;
+                            bestScore = s;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the item closest to the given point that matches the filter,
+     * or {@code null} if none does. Cells are searched in growing rings
+     * around the point, so the cost depends on how far away the answer is
+     * rather than on the total number of items.
+     */
+    @SuppressWarnings("unchecked")
+    public T nearest(double x, double y, Predicate<? super T> filter) {
+        int ox = cellX(x), oy = cellY(y);
+        int maxRing = Math.max(cols, rows);
+        T best = null;
+        double bestD2 = Double.POSITIVE_INFINITY;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // anything in this ring is at least (ring - 1) cells away
+            double ringDist = (ring - 1) * cellSize;
+            if (best != null && ringDist > 0 && ringDist * ringDist > bestD2) break;
+            for (int cy = oy - ring; cy <= oy + ring; cy++) {
+                if (cy < 0 || cy >= rows) continue;
+                boolean edgeRow = cy == oy - ring || cy == oy + ring;
+                int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+                for (int cx = ox - ring; cx <= ox + ring; cx += step) {
+                    if (cx < 0 || cx >= cols) continue;
+                    int cell = cx + cy * cols;
+                    for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                        T item = (T) items[i];
+                        if (!filter.test(item)) continue;
+                        double dx = xs[i] - x, dy = ys[i] - y;
+                        double d2 = dx * dx + dy * dy;
+                        if (d2 < bestD2) {
+                            best = item;
+                            bestD2 = d2;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private int cellX(double x) {
+        int c = (int) Math.floor(x / cellSize);
+        return c < 0 ? 0 : Math.min(c, cols - 1);
+    }
+
+    private int cellY(double y) {
+        int c = (int) Math.floor(y / cellSize);
+        return c < 0 ? 0 : Math.min(c, rows - 1);
+    }
+}
@@ -21,7 +21,7 @@ module com.example.game {
 	opens com.example.storage_manager to com.fasterxml.jackson.databind;
 
 	exports com.example.game;
-	opens com.example.game to javafx.fxml;
+	opens com.example.game to javafx.fxml, com.fasterxml.jackson.databind;
 
 	exports com.example.utils;
 	opens com.example.utils to javafx.fxml;